@@ -0,0 +1,115 @@
+#!/bin/sh
+#
+# Runs a test class of this bundle in several headless workbench processes in
+# parallel, each one with its own workspace seeded with the fixture projects,
+# then merges their JUnit XML reports.
+#
+# Usage: run-sharded-tests.sh <eclipse home> [shards] [test class] [output dir]
+#
+# The Eclipse installation must contain this bundle, RedDeer, the Eclipse test
+# framework (org.eclipse.test, whose EclipseTestRunner writes the JUnit XML
+# reports) and Ant with its JUnit tasks (org.apache.ant, which provides the
+# XML formatter). Each shard runs the test methods selected by
+# JUnitLinkWithEditorShardRunner; as test methods are partitioned by JUnit run
+# type and link state, there are at most 6 shards (the number of processors
+# by default). Shards run under xvfb-run unless XVFB=no. When SNAPSHOT is set
+# to a snapshot captured with workspace-snapshot.sh, the shard workspaces are
+# restored from it before any shard starts, instead of importing and building
+# the fixture projects.
+
+set -u
+
+if [ $# -lt 1 ]; then
+	echo "Usage: $0 <eclipse home> [shards] [test class] [output dir]" >&2
+	exit 2
+fi
+
+# the number of partitions of JUnitLinkWithEditorShardRunner
+MAX_SHARDS=6
+
+ECLIPSE_HOME=$1
+SHARDS=${2:-$(nproc 2>/dev/null || echo 2)}
+if [ $# -lt 2 ] && [ "$SHARDS" -gt $MAX_SHARDS ]; then
+	SHARDS=$MAX_SHARDS
+fi
+if [ "$SHARDS" -lt 1 ] || [ "$SHARDS" -gt $MAX_SHARDS ]; then
+	echo "Invalid number of shards: $SHARDS (expected 1 to $MAX_SHARDS)" >&2
+	exit 2
+fi
+TEST_CLASS=${3:-org.eclipse.jdt.internal.junit.ui.JUnitLinkWithEditorRedDeerTest}
+OUTPUT_DIR=${4:-target/shards}
+TEST_PLUGIN=org.eclipse.jdt.junit.core.contrib.junitlwe.test
+FORMATTER=org.apache.tools.ant.taskdefs.optional.junit.XMLJUnitResultFormatter
+BUNDLE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+
+if [ "${XVFB:-yes}" = "no" ]; then
+	RUN=
+else
+	RUN="xvfb-run -a"
+fi
+
+rm -rf "$OUTPUT_DIR"
+mkdir -p "$OUTPUT_DIR"
+OUTPUT_DIR=$(cd "$OUTPUT_DIR" && pwd)
+
+# seed all the workspaces first, so that no shard is left running if one of
+# them cannot be seeded
+i=0
+while [ $i -lt "$SHARDS" ]; do
+	SHARD_DIR=$OUTPUT_DIR/shard-$i
+	if [ -n "${SNAPSHOT:-}" ]; then
+		"$BUNDLE_DIR/scripts/workspace-snapshot.sh" restore "$SNAPSHOT" "$SHARD_DIR/workspace" || exit 1
+	else
+		mkdir -p "$SHARD_DIR/workspace"
+		# the tests import the projects found in the workspace directory
+		cp -R "$BUNDLE_DIR/projects/JUnit-LWE" "$BUNDLE_DIR/projects/JUnit-LWE-lib" "$SHARD_DIR/workspace/" || exit 1
+	fi
+	i=$((i + 1))
+done
+
+PIDS=
+i=0
+while [ $i -lt "$SHARDS" ]; do
+	SHARD_DIR=$OUTPUT_DIR/shard-$i
+	$RUN "$ECLIPSE_HOME/eclipse" -nosplash -consoleLog \
+		-application org.eclipse.test.uitestapplication \
+		-data "$SHARD_DIR/workspace" \
+		-testpluginname "$TEST_PLUGIN" \
+		-classname "$TEST_CLASS" \
+		-formatter "$FORMATTER,$SHARD_DIR/TEST-$TEST_CLASS.xml" \
+		-vmargs \
+		-Djunitlwe.shard.index=$i \
+		-Djunitlwe.shard.count="$SHARDS" \
+		-Djunitlwe.reports.dir="$SHARD_DIR/reports" \
+		> "$SHARD_DIR/console.log" 2>&1 &
+	PIDS="$PIDS $!"
+	i=$((i + 1))
+done
+
+STATUS=0
+for PID in $PIDS; do
+	wait "$PID" || STATUS=1
+done
+
+# merge the test suites of all shards
+MERGED=$OUTPUT_DIR/TEST-$TEST_CLASS.xml
+{
+	echo '<?xml version="1.0" encoding="UTF-8"?>'
+	echo '<testsuites>'
+	for SHARD_DIR in "$OUTPUT_DIR"/shard-*; do
+		REPORT=$SHARD_DIR/TEST-$TEST_CLASS.xml
+		if [ -f "$REPORT" ]; then
+			sed '/^<?xml/d' "$REPORT"
+		else
+			echo "Missing report of $SHARD_DIR, see its console.log" >&2
+			STATUS=1
+		fi
+	done
+	echo '</testsuites>'
+} > "$MERGED"
+
+if grep -q '<failure\|<error' "$MERGED"; then
+	STATUS=1
+fi
+echo "Merged report: $MERGED"
+exit $STATUS
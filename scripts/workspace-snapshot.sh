@@ -0,0 +1,78 @@
+#!/bin/sh
+#
+# Captures a fully built and indexed workspace holding the fixture projects
+# once, and restores it before each run (or shard) instead of importing and
+# building the projects again.
+#
+# Usage: workspace-snapshot.sh capture <eclipse home> <snapshot dir>
+#        workspace-snapshot.sh restore <snapshot dir> <workspace dir>
+#
+# capture seeds a fresh workspace with projects/JUnit-LWE and
+# projects/JUnit-LWE-lib, runs the prepareWorkspace application of this bundle
+# (FixtureWorkspacePreparation) in it (import, full build, JDT search indexes,
+# workspace save), and keeps the result, including its .metadata, as the
+# snapshot. The application starts no workbench, so capture needs no display.
+# restore copies the snapshot with copy-on-write clones where the file system
+# supports them (cp --reflink), and plain copies otherwise.
+
+set -eu
+
+TEST_PLUGIN=org.eclipse.jdt.junit.core.contrib.junitlwe.test
+BUNDLE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+
+usage() {
+	echo "Usage: $0 capture <eclipse home> <snapshot dir>" >&2
+	echo "       $0 restore <snapshot dir> <workspace dir>" >&2
+	exit 2
+}
+
+copy_tree() {
+	# copy the content of $1 into $2, as clones when possible
+	mkdir -p "$2"
+	cp -a --reflink=auto "$1"/. "$2"/ 2>/dev/null || cp -R -p "$1"/. "$2"/
+}
+
+capture() {
+	ECLIPSE_HOME=$1
+	SNAPSHOT_DIR=$2
+	WORK_DIR=$(mktemp -d)
+	mkdir -p "$WORK_DIR/workspace"
+	cp -R "$BUNDLE_DIR/projects/JUnit-LWE" "$BUNDLE_DIR/projects/JUnit-LWE-lib" "$WORK_DIR/workspace/"
+	if ! "$ECLIPSE_HOME/eclipse" -nosplash -consoleLog --launcher.suppressErrors \
+		-application "$TEST_PLUGIN.prepareWorkspace" \
+		-data "$WORK_DIR/workspace" \
+		> "$WORK_DIR/console.log" 2>&1; then
+		echo "Workspace preparation failed, see $WORK_DIR/console.log" >&2
+		exit 1
+	fi
+	# the lock of the workspace is not released in the copy
+	rm -f "$WORK_DIR/workspace/.metadata/.lock"
+	rm -rf "$SNAPSHOT_DIR"
+	copy_tree "$WORK_DIR/workspace" "$SNAPSHOT_DIR"
+	rm -rf "$WORK_DIR"
+	echo "Captured workspace snapshot in $SNAPSHOT_DIR"
+}
+
+restore() {
+	SNAPSHOT_DIR=$1
+	WORKSPACE_DIR=$2
+	if [ ! -d "$SNAPSHOT_DIR/.metadata" ]; then
+		echo "$SNAPSHOT_DIR is not a workspace snapshot" >&2
+		exit 1
+	fi
+	rm -rf "$WORKSPACE_DIR"
+	copy_tree "$SNAPSHOT_DIR" "$WORKSPACE_DIR"
+}
+
+[ $# -eq 3 ] || usage
+case $1 in
+capture)
+	capture "$2" "$3"
+	;;
+restore)
+	restore "$2" "$3"
+	;;
+*)
+	usage
+	;;
+esac
@@ -0,0 +1,685 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.eclipse.jdt.junit.JUnitCore;
+import org.eclipse.jdt.junit.TestRunListener;
+import org.eclipse.jdt.junit.model.ITestRunSession;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.ui.ISelectionListener;
+import org.eclipse.ui.ISelectionService;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.ui.PlatformUI;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.jboss.reddeer.common.condition.WaitCondition;
+import org.jboss.reddeer.common.logging.Logger;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.common.wait.WaitUntil;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.eclipse.core.resources.ProjectItem;
+import org.jboss.reddeer.eclipse.jdt.ui.ProjectExplorer;
+import org.jboss.reddeer.eclipse.jdt.ui.junit.JUnitView;
+import org.jboss.reddeer.jface.viewer.handler.TreeViewerHandler;
+import org.jboss.reddeer.swt.api.TreeItem;
+import org.jboss.reddeer.swt.condition.JobIsRunning;
+import org.jboss.reddeer.swt.handler.WorkbenchHandler;
+import org.jboss.reddeer.swt.impl.menu.ContextMenu;
+import org.jboss.reddeer.swt.impl.tree.DefaultTree;
+import org.jboss.reddeer.workbench.api.Editor;
+import org.jboss.reddeer.workbench.api.View;
+import org.jboss.reddeer.workbench.impl.editor.TextEditor;
+import org.jboss.reddeer.workbench.impl.view.AbstractView;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.rules.MethodRule;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.RunWith;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+/**
+ * Base class for the RedDeer tests of the JUnit view's "Link with Editor"
+ * feature: launches the JUnit tests and toggles the tool item as requested by
+ * the {@link RunJUnitTests} and {@link LinkWithEditor} annotations of each
+ * test method, and provides the helpers to drive the workbench.
+ */
+@RunWith(JUnitLinkWithEditorShardRunner.class)
+@SuppressWarnings({ "restriction" })
+public abstract class AbstractJUnitLinkWithEditorTest {
+
+	protected static final class JobIsDoneCondition implements WaitCondition {
+		@Override
+		public boolean test() {
+			return !(new JobIsRunning().test());
+		}
+
+		@Override
+		public String description() {
+			return "a job is running";
+		}
+	}
+
+	/**
+	 * Waits until the next JUnit test run session launched on the given project
+	 * finishes, as notified by a {@link TestRunListener}, regardless of any
+	 * other (unrelated) background job or test run session. The listener is
+	 * registered when the condition is created, so it must be created
+	 * <strong>before</strong> the tests are launched, and it must be disposed
+	 * once the wait is over.
+	 */
+	private static final class TestRunFinishedCondition implements WaitCondition {
+
+		private final String projectName;
+
+		private final CountDownLatch sessionFinishedLatch = new CountDownLatch(1);
+
+		/** the session launched on the project, once it started. */
+		private ITestRunSession launchedSession;
+
+		private final TestRunListener testRunListener = new TestRunListener() {
+			@Override
+			public synchronized void sessionStarted(final ITestRunSession session) {
+				if (launchedSession == null && session.getLaunchedProject() != null
+						&& projectName.equals(session.getLaunchedProject().getElementName())) {
+					launchedSession = session;
+				}
+			}
+
+			@Override
+			public synchronized void sessionFinished(final ITestRunSession session) {
+				if (session == launchedSession) {
+					sessionFinishedLatch.countDown();
+					dispose();
+				}
+			}
+		};
+
+		public TestRunFinishedCondition(final String projectName) {
+			this.projectName = projectName;
+			JUnitCore.addTestRunListener(testRunListener);
+		}
+
+		@Override
+		public boolean test() {
+			if (sessionFinishedLatch.getCount() != 0) {
+				return false;
+			}
+			// let the JUnit view process the UI updates it scheduled when the
+			// session finished
+			org.jboss.reddeer.core.util.Display.syncExec(new Runnable() {
+				@Override
+				public void run() {
+				}
+			});
+			return true;
+		}
+
+		/**
+		 * Unregisters the listener, whether the session finished or not.
+		 */
+		public void dispose() {
+			JUnitCore.removeTestRunListener(testRunListener);
+		}
+
+		@Override
+		public String description() {
+			return "the JUnit test run on " + projectName + " is finished";
+		}
+	}
+
+	/**
+	 * Waits until the workbench delivers a post-selection notification, or
+	 * until the given period is elapsed: the period is an upper bound, not a
+	 * requirement, so the condition is true once either happened. The
+	 * listener is registered when the condition is created, so it must be
+	 * created <strong>before</strong> the selection is performed, and it is
+	 * removed after the first test.
+	 */
+	private static final class PostSelectionCondition implements WaitCondition {
+
+		private final TimePeriod period;
+
+		private final CountDownLatch postSelectionLatch = new CountDownLatch(1);
+
+		private final ISelectionListener postSelectionListener = new ISelectionListener() {
+			@Override
+			public void selectionChanged(final IWorkbenchPart part, final ISelection selection) {
+				postSelectionLatch.countDown();
+			}
+		};
+
+		public PostSelectionCondition(final TimePeriod period) {
+			this.period = period;
+			org.jboss.reddeer.core.util.Display.syncExec(new Runnable() {
+				@Override
+				public void run() {
+					getSelectionService().addPostSelectionListener(postSelectionListener);
+				}
+			});
+		}
+
+		private static ISelectionService getSelectionService() {
+			return PlatformUI.getWorkbench().getActiveWorkbenchWindow().getSelectionService();
+		}
+
+		@Override
+		public boolean test() {
+			try {
+				// carry on without the notification once the period elapsed
+				postSelectionLatch.await(period.getSeconds(), TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				org.jboss.reddeer.core.util.Display.syncExec(new Runnable() {
+					@Override
+					public void run() {
+						getSelectionService().removePostSelectionListener(postSelectionListener);
+					}
+				});
+			}
+			return true;
+		}
+
+		@Override
+		public String description() {
+			return "a portion of text is selected";
+		}
+	}
+
+	private static final class ViewActivationCondition implements WaitCondition {
+
+		private final View targetView;
+
+		public ViewActivationCondition(final View targetView) {
+			this.targetView = targetView;
+		}
+
+		@Override
+		public boolean test() {
+			return targetView.isActive();
+		}
+
+		@Override
+		public String description() {
+			return targetView.getTitle() + " is active";
+		}
+	}
+
+	private static final class ProjectItemSelectionCondition implements WaitCondition {
+
+		private final ProjectItem targetItem;
+
+		public ProjectItemSelectionCondition(final ProjectItem targetItem) {
+			this.targetItem = targetItem;
+		}
+
+		@Override
+		public boolean test() {
+			return targetItem.isSelected();
+		}
+
+		@Override
+		public String description() {
+			return targetItem.getName() + " is selected";
+		}
+	}
+
+	private static final class TreeItemSelectionCondition implements WaitCondition {
+
+		private final TreeItem targetItem;
+
+		public TreeItemSelectionCondition(final TreeItem targetItem) {
+			this.targetItem = targetItem;
+		}
+
+		@Override
+		public boolean test() {
+			return targetItem.isSelected();
+		}
+
+		@Override
+		public String description() {
+			return targetItem.getText() + " is selected";
+		}
+	}
+
+	private static final class EditorActivationCondition implements WaitCondition {
+
+		private final Editor targetEditor;
+
+		public EditorActivationCondition(final Editor targetEditor) {
+			this.targetEditor = targetEditor;
+		}
+
+		@Override
+		public boolean test() {
+			return targetEditor.isActive();
+		}
+
+		@Override
+		public String description() {
+			return targetEditor.getTitle() + " is active";
+		}
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(AbstractJUnitLinkWithEditorTest.class);
+
+	protected static final String SYNCED_IMAGE = "synced.gif";
+	protected static final String LINK_WITH_EDITOR = "Link with Editor";
+	protected static final String TEST_PROJECT = "JUnit-LWE";
+	protected static final String SYNC_BROKEN_IMAGE = "sync_broken.gif";
+
+	/** the JUnit runs shared by all test methods, launched once per {@link TestType}. */
+	private static final JUnitRunCache RUN_CACHE = new JUnitRunCache();
+
+	/**
+	 * the state of the JUnit view's tree right after it was opened, for each
+	 * {@link TestType}, to reset the view to between test methods.
+	 */
+	private static final Map<TestType, JUnitViewState> FRESH_VIEW_STATES = new EnumMap<TestType, JUnitViewState>(
+			TestType.class);
+
+	/** the tree of the JUnit view kept open between test methods. */
+	private static Tree junitViewTree;
+
+	/** the scenario of the running test method. */
+	private Scenario scenario;
+
+	/** the timings of the rule's phases and of the helpers, per test method. */
+	private final PhaseTimings phaseTimings = PhaseTimings.forTestClass(getClass());
+
+	/**
+	 * Writes the phase timings and the wait condition report once all the
+	 * test methods of the class ran. A report that cannot be written is
+	 * logged, so that it does not hide the outcome of the tests.
+	 */
+	@ClassRule
+	public static final TestRule WRITE_REPORTS = new TestWatcher() {
+		@Override
+		protected void finished(final org.junit.runner.Description description) {
+			try {
+				PhaseTimings.forTestClass(description.getTestClass()).write();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to write the phase timings of " + description.getTestClass().getName() + ": "
+						+ e.getMessage());
+			}
+			try {
+				AdaptiveWait.writeReport();
+			} catch (IOException e) {
+				LOGGER.warn("Failed to write the wait condition report: " + e.getMessage());
+			}
+		}
+	};
+
+	@BeforeClass
+	public static void importFixtureProjects() throws Exception {
+		FixtureProjects.importMissingProjects();
+	}
+
+	@Rule
+	public MethodRule toogleLinkWithEditor = new MethodRule() {
+
+		@Override
+		public Statement apply(final Statement base, final FrameworkMethod method, final Object target) {
+			return new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					phaseTimings.startTestMethod(method.getName());
+					scenario = Scenario.of(method);
+					long start = System.nanoTime();
+					closeAllEditors();
+					start = phaseTimings.record("closeAllEditors", start);
+					runJUnitTests();
+					start = phaseTimings.record("runJUnitTests", start);
+					toogleLinkWithEditor();
+					start = phaseTimings.record("toogleLinkWithEditor", start);
+					captureFreshJUnitView();
+					start = phaseTimings.record("captureFreshJUnitView", start);
+					try {
+						base.evaluate();
+					} catch (Throwable e) {
+						// the failed test method may have left the view in
+						// any state, so don't let the next one reuse it
+						closeJUnitView();
+						throw e;
+					}
+					start = phaseTimings.record("test", start);
+					resetJUnitView();
+					phaseTimings.record("resetJUnitView", start);
+				}
+			};
+		}
+
+		/**
+		 * Records the state of the (active) JUnit view if it was opened for
+		 * this test method.
+		 */
+		private void captureFreshJUnitView() {
+			final Tree tree = new DefaultTree().getSWTWidget();
+			if (tree != junitViewTree) {
+				junitViewTree = tree;
+				FRESH_VIEW_STATES.put(scenario.getTestType(), JUnitViewState.capture(tree));
+			}
+		}
+
+		/**
+		 * Closes the editors and resets the JUnit view to the state it had
+		 * when it was opened, or closes it if it cannot be reset (eg: it was
+		 * opened for another session and this session was restored in it
+		 * since, or it still shows a broken sync).
+		 */
+		private void resetJUnitView() {
+			closeAllEditors();
+			final JUnitViewState freshViewState = FRESH_VIEW_STATES.get(scenario.getTestType());
+			if (freshViewState == null || junitViewTree == null || isDisposed(junitViewTree)
+					|| !JUnitViewState.reset(junitViewTree, freshViewState)
+					|| !IconFingerprint.forIcon(SYNCED_IMAGE).equals(LinkWithEditorToolItem.getIcon())) {
+				closeJUnitView();
+			}
+		}
+
+		/**
+		 * Closes the JUnit view, so that the next test method opens it afresh.
+		 */
+		private void closeJUnitView() {
+			FRESH_VIEW_STATES.remove(scenario.getTestType());
+			junitViewTree = null;
+			new JUnitView().close();
+		}
+
+		private void closeAllEditors() {
+			// close all editors
+			WorkbenchHandler.getInstance().closeAllEditors();
+		}
+
+		private void toogleLinkWithEditor() {
+			final JUnitView junitView = new JUnitView();
+			open(junitView);
+			// enable/disable as requested, unless the previous test method
+			// left the same state
+			LinkWithEditorToolItem.setSelected(scenario.isLinkWithEditorEnabled());
+		}
+
+		private void runJUnitTests() {
+			if (scenario.getTestType() == null) {
+				fail("Missing @RunWithJunitTests annotation");
+			}
+			if (scenario.getTestType() == TestType.NONE) {
+				// the test method launches its own tests
+				return;
+			}
+			// keep the session left by the previous test method, or reuse the
+			// session of a previous launch if it is still in the JUnit view's
+			// history
+			if (RUN_CACHE.isShown(scenario.getTestType()) || RUN_CACHE.restore(scenario.getTestType())) {
+				return;
+			}
+			switch (scenario.getTestType()) {
+			case ALL:
+				runAllTests();
+				break;
+			case LIB:
+				runAllNestedTests();
+				break;
+			case SUITE:
+				runTestSuite();
+				break;
+			case NONE:
+				break;
+			}
+		}
+	};
+
+	/**
+	 * Closes the JUnit view and opens it again with the session of the running
+	 * test method, as if the previous test methods had never used it.
+	 *
+	 * @return the state of the reopened JUnit view
+	 */
+	protected JUnitViewState reopenJUnitView() {
+		new JUnitView().close();
+		assertTrue(RUN_CACHE.restore(scenario.getTestType()));
+		LinkWithEditorToolItem.setSelected(scenario.isLinkWithEditorEnabled());
+		junitViewTree = new DefaultTree().getSWTWidget();
+		final JUnitViewState freshViewState = JUnitViewState.capture(junitViewTree);
+		FRESH_VIEW_STATES.put(scenario.getTestType(), freshViewState);
+		return freshViewState;
+	}
+
+	private static boolean isDisposed(final Tree tree) {
+		return org.jboss.reddeer.core.util.Display.syncExec(new ResultRunnable<Boolean>() {
+			@Override
+			public Boolean run() {
+				return tree.isDisposed();
+			}
+		});
+	}
+
+	/**
+	 * @return the scenario of the running test method, from its
+	 *         {@link ScenarioMatrix} cell or from its {@link RunJUnitTests}
+	 *         and {@link LinkWithEditor} annotations
+	 */
+	protected Scenario getScenario() {
+		return scenario;
+	}
+
+	protected void runAllTests() {
+		// run the JUnit tests on the project
+		launchAllTests(TEST_PROJECT, TimePeriod.LONG);
+		// make sure the view gets updated once the job finished
+		// sleep(TimePeriod.SHORT);
+		final JUnitRunSummary runSummary = JUnitRunSummary.capture();
+		assertEquals(runSummary.getFailures(), 4);
+		assertEquals(runSummary.getErrors(), 0);
+		RUN_CACHE.store(TestType.ALL);
+	}
+
+	/**
+	 * Runs all the JUnit tests of the given project and waits until the test
+	 * run is finished.
+	 *
+	 * @param projectName
+	 *            the name of the project in the Project Explorer
+	 * @param timePeriod
+	 *            the maximum time to wait for the test run to finish
+	 */
+	protected void launchAllTests(final String projectName, final TimePeriod timePeriod) {
+		final ProjectExplorer projectExplorer = new ProjectExplorer();
+		assertTrue(projectExplorer.containsProject(projectName));
+		projectExplorer.getProject(projectName).select();
+		final TestRunFinishedCondition testRunFinished = new TestRunFinishedCondition(projectName);
+		try {
+			new ContextMenu("Run As", "4 JUnit Test").select();
+			new WaitUntil(testRunFinished, timePeriod);
+		} finally {
+			testRunFinished.dispose();
+		}
+	}
+
+	protected void runAllNestedTests() {
+		// run the JUnit tests on the project
+		launchAllNestedTests(TEST_PROJECT, "JUnit-LWE-lib.jar", TimePeriod.LONG);
+		// make sure the view gets updated once the job finished
+		// sleep(TimePeriod.SHORT);
+		final JUnitRunSummary runSummary = JUnitRunSummary.capture();
+		assertEquals(runSummary.getFailures(), 2);
+		assertEquals(runSummary.getErrors(), 0);
+		RUN_CACHE.store(TestType.LIB);
+	}
+
+	/**
+	 * Runs all the JUnit tests of the given library of the given project and
+	 * waits until the test run is finished.
+	 *
+	 * @param projectName
+	 *            the name of the project in the Project Explorer
+	 * @param libName
+	 *            the name of the library (jar) in the project
+	 * @param timePeriod
+	 *            the maximum time to wait for the test run to finish
+	 */
+	protected void launchAllNestedTests(final String projectName, final String libName, final TimePeriod timePeriod) {
+		final ProjectExplorer projectExplorer = new ProjectExplorer();
+		projectExplorer.open();
+		assertTrue(projectExplorer.containsProject(projectName));
+		projectExplorer.getProject(projectName).getProjectItem(libName).open();
+		final TestRunFinishedCondition testRunFinished = new TestRunFinishedCondition(projectName);
+		try {
+			new ContextMenu("Run As", "4 JUnit Test").select();
+			new WaitUntil(testRunFinished, timePeriod);
+		} finally {
+			testRunFinished.dispose();
+		}
+	}
+
+	protected void runTestSuite() {
+		// run the JUnit tests on the project
+		final ProjectExplorer projectExplorer = new ProjectExplorer();
+		assertTrue(projectExplorer.containsProject(TEST_PROJECT));
+		projectExplorer.getProject(TEST_PROJECT).select();
+		final TreeItem testSuiteItem = getTreeItem(TEST_PROJECT, "src", "junit.lwe", "AllTests.java");
+		testSuiteItem.select();
+		final ContextMenu runAsJunitTestContextMenu = new ContextMenu("Run As", "2 JUnit Test");
+		final TestRunFinishedCondition testRunFinished = new TestRunFinishedCondition(TEST_PROJECT);
+		try {
+			runAsJunitTestContextMenu.select();
+			new WaitUntil(testRunFinished, TimePeriod.LONG);
+		} finally {
+			testRunFinished.dispose();
+		}
+		// make sure the view gets updated once the job finished
+		// sleep(TimePeriod.SHORT);
+		final JUnitRunSummary runSummary = JUnitRunSummary.capture();
+		assertEquals(runSummary.getFailures(), 2);
+		assertEquals(runSummary.getErrors(), 0);
+		RUN_CACHE.store(TestType.SUITE);
+	}
+
+	/**
+	 * 
+	 * @param elements
+	 * @return the first {@link TreeItem} in the {@link DefaultTree} whose text
+	 *         starts with the given {@code text}
+	 */
+	protected TreeItem getTreeItem(final String... elements) {
+		return TreeViewerHandler.getInstance().getTreeItem(new DefaultTree(), elements);
+	}
+
+	/**
+	 * @param elements
+	 *            the path to the test element in the JUnit view
+	 * @return the {@link TreeItem} of the given test element in the (active)
+	 *         JUnit view, looked up from the {@link JUnitTreeIndex} of the
+	 *         view's tree
+	 */
+	protected TreeItem getTestElement(final String... elements) {
+		final TreeItem testElement = JUnitTreeIndex.forTree(new DefaultTree().getSWTWidget()).getTreeItem(elements);
+		if (testElement != null) {
+			return testElement;
+		}
+		// the item may not have been created yet (collapsed parent node)
+		return getTreeItem(elements);
+	}
+
+	protected void open(final AbstractView view) {
+		final long start = System.nanoTime();
+		view.open();
+		// sleep(TimePeriod.SHORT);
+		phaseTimings.record("open", start);
+	}
+
+	protected void open(final ProjectItem projectItem) {
+		final long start = System.nanoTime();
+		final PostSelectionCondition postSelection = new PostSelectionCondition(TimePeriod.SHORT);
+		projectItem.open();
+		// new WaitUntil(new ProjectItemOpenCondition(projectItem),
+		// TimePeriod.NORMAL);
+		new WaitUntil(postSelection, TimePeriod.SHORT);
+		phaseTimings.record("open", start);
+	}
+
+	protected void select(final TreeItem treeItem) {
+		final long start = System.nanoTime();
+		treeItem.select();
+		AdaptiveWait.until(new TreeItemSelectionCondition(treeItem), TimePeriod.NORMAL);
+		phaseTimings.record("select", start);
+	}
+
+	protected void select(final ProjectItem projectItem) {
+		final long start = System.nanoTime();
+		projectItem.select();
+		AdaptiveWait.until(new ProjectItemSelectionCondition(projectItem), TimePeriod.NORMAL);
+		phaseTimings.record("select", start);
+	}
+
+	protected void selectText(final TextEditor editor, final String text) {
+		final long start = System.nanoTime();
+		final PostSelectionCondition postSelection = new PostSelectionCondition(TimePeriod.SHORT);
+		editor.selectText(text);
+		new WaitUntil(postSelection, TimePeriod.SHORT);
+		phaseTimings.record("selectText", start);
+	}
+
+	protected void selectLine(final TextEditor editor, final int line) {
+		final long start = System.nanoTime();
+		final PostSelectionCondition postSelection = new PostSelectionCondition(TimePeriod.SHORT);
+		editor.selectLine(line);
+		new WaitUntil(postSelection, TimePeriod.SHORT);
+		phaseTimings.record("selectLine", start);
+	}
+
+	protected void activate(final AbstractView view) {
+		final long start = System.nanoTime();
+		view.activate();
+		AdaptiveWait.until(new ViewActivationCondition(view), TimePeriod.NORMAL);
+		phaseTimings.record("activate", start);
+	}
+
+	protected void activate(final TextEditor editor) {
+		final long start = System.nanoTime();
+		editor.activate();
+		AdaptiveWait.until(new EditorActivationCondition(editor), TimePeriod.NORMAL);
+		phaseTimings.record("activate", start);
+	}
+
+	protected void doubleClick(final TreeItem item) {
+		final long start = System.nanoTime();
+		item.doubleClick();
+		new WaitUntil(new JobIsDoneCondition(), TimePeriod.LONG);
+		// sleep(TimePeriod.SHORT);
+		phaseTimings.record("doubleClick", start);
+	}
+
+	protected Matcher<ToolItemState> matches(final String iconName) {
+		return new BaseMatcher<ToolItemState>() {
+
+			@Override
+			public boolean matches(Object item) {
+				final ToolItemState toolItemState = (ToolItemState) item;
+				return IconFingerprint.forIcon(iconName).equals(toolItemState.getIcon());
+			}
+
+			@Override
+			public void describeTo(Description description) {
+				description.appendText(iconName);
+
+			}
+		};
+	}
+
+}
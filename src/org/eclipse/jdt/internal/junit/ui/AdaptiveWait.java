@@ -0,0 +1,98 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.reddeer.common.condition.WaitCondition;
+import org.jboss.reddeer.common.exception.WaitTimeoutExpiredException;
+import org.jboss.reddeer.common.wait.TimePeriod;
+
+/**
+ * Waits for {@link WaitCondition}s by polling them quickly at first, then
+ * less and less often (exponential backoff), instead of at RedDeer's fixed
+ * interval. The time each kind of condition took to become true is recorded,
+ * and written in {@code wait-conditions.json} in the reports directory (see
+ * {@link BenchmarkReport}) as latency statistics and as histograms (counters
+ * named {@code <condition>/le<bound>ms}), so that time periods can be tuned
+ * from data.
+ */
+final class AdaptiveWait {
+
+	static final long INITIAL_POLL_MILLIS = 2;
+
+	static final long MAX_POLL_MILLIS = 250;
+
+	/** the latencies and timeouts, by simple class name of condition. */
+	private static final BenchmarkReport REPORT = new BenchmarkReport("wait-conditions");
+
+	private static final Set<String> KEYS = new LinkedHashSet<String>();
+
+	private AdaptiveWait() {
+	}
+
+	/**
+	 * Waits until the given condition is true.
+	 *
+	 * @param condition
+	 *            the condition to wait for
+	 * @param timePeriod
+	 *            the maximum time to wait
+	 * @throws WaitTimeoutExpiredException
+	 *             if the condition is still false after the given time period
+	 */
+	public static void until(final WaitCondition condition, final TimePeriod timePeriod) {
+		final String key = condition.getClass().getSimpleName();
+		final long start = System.nanoTime();
+		final long deadline = start + TimeUnit.SECONDS.toNanos(timePeriod.getSeconds());
+		long pollMillis = INITIAL_POLL_MILLIS;
+		while (!condition.test()) {
+			final long remainingNanos = deadline - System.nanoTime();
+			if (remainingNanos <= 0) {
+				recordTimeout(key);
+				throw new WaitTimeoutExpiredException("Timeout after " + timePeriod.getSeconds()
+						+ " s while waiting until " + condition.description());
+			}
+			try {
+				TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(pollMillis)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new WaitTimeoutExpiredException("Interrupted while waiting until " + condition.description());
+			}
+			pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+		}
+		getLatencies(key).record(System.nanoTime() - start);
+	}
+
+	/**
+	 * @param key
+	 *            the simple class name of a condition
+	 * @return the time the given kind of condition took to become true
+	 */
+	public static synchronized LatencyStatistics getLatencies(final String key) {
+		KEYS.add(key);
+		return REPORT.getLatencies(key);
+	}
+
+	private static void recordTimeout(final String key) {
+		REPORT.incrementCounter(key + "/timeouts");
+	}
+
+	/**
+	 * Writes the latencies and histograms of all the conditions waited for so
+	 * far.
+	 *
+	 * @throws IOException
+	 */
+	public static synchronized void writeReport() throws IOException {
+		for (String key : KEYS) {
+			for (Entry<Long, Integer> bucket : REPORT.getLatencies(key).getHistogram().entrySet()) {
+				REPORT.setCounter(key + "/le" + bucket.getKey() + "ms", bucket.getValue());
+			}
+		}
+		REPORT.write();
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+
+/**
+ * A named set of {@link LatencyStatistics} and counters, written as a JSON
+ * file in the reports directory (set with the {@code junitlwe.reports.dir}
+ * system property, defaults to {@code junitlwe-reports} in the workspace
+ * directory).
+ */
+final class BenchmarkReport {
+
+	static final String REPORTS_DIR_PROPERTY = "junitlwe.reports.dir";
+
+	private final String name;
+
+	private final Map<String, LatencyStatistics> latencies = new LinkedHashMap<String, LatencyStatistics>();
+
+	private final Map<String, Long> counters = new LinkedHashMap<String, Long>();
+
+	/**
+	 * @param name
+	 *            the name of the report, also used as the name of the file
+	 */
+	public BenchmarkReport(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the reports directory
+	 */
+	static File getReportsDir() {
+		final String reportsDir = System.getProperty(REPORTS_DIR_PROPERTY);
+		if (reportsDir != null) {
+			return new File(reportsDir);
+		}
+		return ResourcesPlugin.getWorkspace().getRoot().getLocation().append("junitlwe-reports").toFile();
+	}
+
+	/**
+	 * @param key
+	 *            the name of the measured operation
+	 * @return the statistics of the given operation, created on first access
+	 */
+	public synchronized LatencyStatistics getLatencies(final String key) {
+		LatencyStatistics statistics = latencies.get(key);
+		if (statistics == null) {
+			statistics = new LatencyStatistics();
+			latencies.put(key, statistics);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Sets the value of a counter.
+	 */
+	public synchronized void setCounter(final String key, final long value) {
+		counters.put(key, value);
+	}
+
+	/**
+	 * Increments the value of a counter, starting from {@code 0}.
+	 */
+	public synchronized void incrementCounter(final String key) {
+		final Long value = counters.get(key);
+		counters.put(key, value == null ? 1 : value + 1);
+	}
+
+	/**
+	 * Writes this report in {@code <reports dir>/<name>.json}.
+	 *
+	 * @return the written file
+	 * @throws IOException
+	 */
+	public synchronized File write() throws IOException {
+		final File reportsDir = getReportsDir();
+		if (!reportsDir.isDirectory() && !reportsDir.mkdirs()) {
+			throw new IOException("Failed to create " + reportsDir.getAbsolutePath());
+		}
+		final File reportFile = new File(reportsDir, name + ".json");
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8");
+		try {
+			writer.write(toJson());
+		} finally {
+			writer.close();
+		}
+		return reportFile;
+	}
+
+	/**
+	 * @return this report as a JSON object
+	 */
+	public synchronized String toJson() {
+		final StringBuilder json = new StringBuilder();
+		json.append("{\n  \"name\": \"").append(name).append("\",\n");
+		json.append("  \"latencies\": {");
+		for (Iterator<Entry<String, LatencyStatistics>> iterator = latencies.entrySet().iterator(); iterator
+				.hasNext();) {
+			final Entry<String, LatencyStatistics> entry = iterator.next();
+			json.append("\n    \"").append(entry.getKey()).append("\": ").append(entry.getValue().toJson());
+			if (iterator.hasNext()) {
+				json.append(',');
+			}
+		}
+		json.append("\n  },\n  \"counters\": {");
+		for (Iterator<Entry<String, Long>> iterator = counters.entrySet().iterator(); iterator.hasNext();) {
+			final Entry<String, Long> entry = iterator.next();
+			json.append("\n    \"").append(entry.getKey()).append("\": ").append(entry.getValue());
+			if (iterator.hasNext()) {
+				json.append(',');
+			}
+		}
+		json.append("\n  }\n}\n");
+		return json.toString();
+	}
+
+}
@@ -0,0 +1,182 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IPageLayout;
+import org.eclipse.ui.IPartListener2;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchPartReference;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.core.util.Display;
+
+/**
+ * Records the selection changes of all editors (including the ones opened
+ * while recording) and of the Outline view, along with the time at which they
+ * occurred, so that the latency between an action (eg: a selection in the
+ * JUnit view) and the resulting selection in the editor and in the Outline
+ * view can be measured.
+ */
+final class EditorSelectionProbe {
+
+	private final SelectionRecorder editorSelections = new SelectionRecorder();
+
+	private final SelectionRecorder outlineSelections = new SelectionRecorder();
+
+	private final ISelectionChangedListener editorSelectionListener = new ISelectionChangedListener() {
+		@Override
+		public void selectionChanged(final SelectionChangedEvent event) {
+			if (event.getSelection() instanceof ITextSelection) {
+				editorSelections.record(((ITextSelection) event.getSelection()).getText());
+			}
+		}
+	};
+
+	private final ISelectionChangedListener outlineSelectionListener = new ISelectionChangedListener() {
+		@Override
+		public void selectionChanged(final SelectionChangedEvent event) {
+			final ISelection selection = event.getSelection();
+			if (selection instanceof IStructuredSelection
+					&& ((IStructuredSelection) selection).getFirstElement() instanceof IJavaElement) {
+				outlineSelections.record(((IJavaElement) ((IStructuredSelection) selection).getFirstElement())
+						.getElementName());
+			}
+		}
+	};
+
+	private final IPartListener2 partListener = new IPartListener2() {
+
+		@Override
+		public void partOpened(final IWorkbenchPartReference partRef) {
+			if (partRef instanceof IEditorReference) {
+				hook(((IEditorReference) partRef).getEditor(false));
+			}
+		}
+
+		@Override
+		public void partActivated(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partBroughtToTop(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partClosed(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partDeactivated(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partHidden(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partVisible(final IWorkbenchPartReference partRef) {
+		}
+
+		@Override
+		public void partInputChanged(final IWorkbenchPartReference partRef) {
+		}
+	};
+
+	private final List<ISelectionProvider> editorSelectionProviders = new ArrayList<ISelectionProvider>();
+
+	private IWorkbenchPage page;
+
+	private ISelectionProvider outlineSelectionProvider;
+
+	/**
+	 * Starts recording the selection changes of the editors and of the
+	 * (opened) Outline view.
+	 */
+	public void attach() {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+				page.addPartListener(partListener);
+				for (IEditorReference editorReference : page.getEditorReferences()) {
+					hook(editorReference.getEditor(false));
+				}
+				final IViewPart outlineView = page.findView(IPageLayout.ID_OUTLINE);
+				if (outlineView != null) {
+					outlineSelectionProvider = outlineView.getSite().getSelectionProvider();
+					outlineSelectionProvider.addSelectionChangedListener(outlineSelectionListener);
+				}
+			}
+		});
+	}
+
+	private void hook(final IEditorPart editor) {
+		if (editor != null && editor.getSite().getSelectionProvider() != null) {
+			final ISelectionProvider selectionProvider = editor.getSite().getSelectionProvider();
+			selectionProvider.addSelectionChangedListener(editorSelectionListener);
+			editorSelectionProviders.add(selectionProvider);
+		}
+	}
+
+	/**
+	 * Stops recording the selection changes.
+	 */
+	public void detach() {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (page != null) {
+					page.removePartListener(partListener);
+					page = null;
+				}
+				for (ISelectionProvider selectionProvider : editorSelectionProviders) {
+					selectionProvider.removeSelectionChangedListener(editorSelectionListener);
+				}
+				editorSelectionProviders.clear();
+				if (outlineSelectionProvider != null) {
+					outlineSelectionProvider.removeSelectionChangedListener(outlineSelectionListener);
+					outlineSelectionProvider = null;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Discards all recorded selection changes.
+	 */
+	public void clear() {
+		editorSelections.clear();
+		outlineSelections.clear();
+	}
+
+	/**
+	 * Waits until the given text is selected in an editor.
+	 *
+	 * @see SelectionRecorder#await(String, long, TimePeriod)
+	 */
+	public long awaitEditorSelection(final String text, final long startNanoTime, final TimePeriod timePeriod) {
+		return editorSelections.await(text, startNanoTime, timePeriod);
+	}
+
+	/**
+	 * Waits until the Java element with the given name is selected in the
+	 * Outline view.
+	 *
+	 * @see SelectionRecorder#await(String, long, TimePeriod)
+	 */
+	public long awaitOutlineSelection(final String elementName, final long startNanoTime, final TimePeriod timePeriod) {
+		return outlineSelections.await(elementName, startNanoTime, timePeriod);
+	}
+
+}
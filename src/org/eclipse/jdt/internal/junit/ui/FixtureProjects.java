@@ -0,0 +1,83 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.io.File;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+
+/**
+ * Imports the fixture projects that were copied in the workspace directory
+ * (eg: by {@code scripts/run-sharded-tests.sh}) but are not part of the
+ * workspace yet, and prepares workspaces to be snapshot.
+ */
+final class FixtureProjects {
+
+	/** the fixture projects, in dependency order. */
+	static final String[] NAMES = { "JUnit-LWE-lib", AbstractJUnitLinkWithEditorTest.TEST_PROJECT };
+
+	private FixtureProjects() {
+	}
+
+	/**
+	 * Imports and builds the fixture projects found in the workspace
+	 * directory, if they are missing from the workspace.
+	 *
+	 * @return {@code true} if at least one project was imported
+	 * @throws CoreException
+	 */
+	static boolean importMissingProjects() throws CoreException {
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		final IWorkspaceRoot root = workspace.getRoot();
+		boolean imported = false;
+		for (String name : NAMES) {
+			final IProject project = root.getProject(name);
+			final File descriptionFile = new File(new File(root.getLocation().toFile(), name),
+					IProjectDescription.DESCRIPTION_FILE_NAME);
+			if (!project.exists() && descriptionFile.isFile()) {
+				final IProjectDescription description = workspace
+						.loadProjectDescription(new Path(descriptionFile.getAbsolutePath()));
+				// the project is in its default location
+				description.setLocation(null);
+				project.create(description, null);
+				project.open(null);
+				imported = true;
+			}
+		}
+		if (imported) {
+			workspace.build(IncrementalProjectBuilder.FULL_BUILD, null);
+		}
+		return imported;
+	}
+
+	/**
+	 * Imports the missing fixture projects, then waits until the workspace is
+	 * built and the JDT search indexes are up to date, and saves the workspace
+	 * so that its state can be snapshot (see
+	 * {@code scripts/workspace-snapshot.sh}).
+	 *
+	 * @throws CoreException
+	 * @throws InterruptedException
+	 */
+	static void prepareWorkspace() throws CoreException, InterruptedException {
+		importMissingProjects();
+		Job.getJobManager().join(ResourcesPlugin.FAMILY_AUTO_BUILD, null);
+		// a search waiting for the indexes returns only once they are ready
+		new SearchEngine().searchAllTypeNames(null, SearchPattern.R_EXACT_MATCH, "A".toCharArray(),
+				SearchPattern.R_EXACT_MATCH, IJavaSearchConstants.CLASS, SearchEngine.createWorkspaceScope(),
+				new TypeNameRequestor() {
+				}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, null);
+		ResourcesPlugin.getWorkspace().save(true, null);
+	}
+
+}
@@ -0,0 +1,34 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Application run by {@code scripts/workspace-snapshot.sh capture} in a fresh
+ * workspace seeded with the fixture projects, to leave it fully built and
+ * indexed before it is snapshot. Exits with {@code 1} if a fixture project is
+ * missing from the prepared workspace.
+ */
+public class FixtureWorkspacePreparation implements IApplication {
+
+	private static final Integer EXIT_FAILURE = Integer.valueOf(1);
+
+	@Override
+	public Object start(final IApplicationContext context) throws Exception {
+		FixtureProjects.prepareWorkspace();
+		for (String name : FixtureProjects.NAMES) {
+			if (!ResourcesPlugin.getWorkspace().getRoot().getProject(name).isOpen()) {
+				System.err.println(name + " is missing from the workspace");
+				return EXIT_FAILURE;
+			}
+		}
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		// the preparation is not interruptible
+	}
+
+}
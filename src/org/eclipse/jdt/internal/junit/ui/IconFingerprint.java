@@ -0,0 +1,102 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.JavaPluginImages;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+
+/**
+ * A lightweight fingerprint of the pixels of an {@link Image}, used to compare
+ * the icon of a tool item with one of the reference icons of the JDT UI
+ * plugin without keeping (or leaking) any SWT resource.
+ */
+@SuppressWarnings("restriction")
+final class IconFingerprint {
+
+	/** the fingerprints of the reference icons, indexed by icon name. */
+	private static final Map<String, IconFingerprint> REFERENCE_ICONS = new HashMap<String, IconFingerprint>();
+
+	private final int length;
+
+	private final int hash;
+
+	private IconFingerprint(final byte[] data) {
+		this.length = data.length;
+		this.hash = Arrays.hashCode(data);
+	}
+
+	/**
+	 * @param imageData
+	 *            the image data to fingerprint
+	 * @return the fingerprint of the given {@link ImageData}
+	 */
+	public static IconFingerprint of(final ImageData imageData) {
+		return new IconFingerprint(imageData.data);
+	}
+
+	/**
+	 * @param iconName
+	 *            the name of the icon in the {@code elcl16} folder of the JDT
+	 *            UI plugin (eg: {@code synced.gif})
+	 * @return the fingerprint of the given icon, loaded once and then served
+	 *         from the cache
+	 */
+	public static synchronized IconFingerprint forIcon(final String iconName) {
+		IconFingerprint fingerprint = REFERENCE_ICONS.get(iconName);
+		if (fingerprint == null) {
+			fingerprint = of(loadImageData(iconName));
+			REFERENCE_ICONS.put(iconName, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	private static ImageData loadImageData(final String iconName) {
+		return Display.syncExec(new ResultRunnable<ImageData>() {
+			@Override
+			public ImageData run() {
+				final IPath path = JavaPluginImages.ICONS_PATH.append("elcl16").append(iconName);
+				final ImageDescriptor imageDescriptor = JavaPluginImages.createImageDescriptor(JavaPlugin.getDefault()
+						.getBundle(), path, false);
+				// go through an actual Image so that the data has the same
+				// format as the one of the tool item's image
+				final Image image = imageDescriptor.createImage();
+				try {
+					return image.getImageData();
+				} finally {
+					image.dispose();
+				}
+			}
+		});
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * length + hash;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IconFingerprint)) {
+			return false;
+		}
+		final IconFingerprint other = (IconFingerprint) obj;
+		return length == other.length && hash == other.hash;
+	}
+
+	@Override
+	public String toString() {
+		return "IconFingerprint [length=" + length + ", hash=" + hash + "]";
+	}
+
+}
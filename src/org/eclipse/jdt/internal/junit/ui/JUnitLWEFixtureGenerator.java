@@ -0,0 +1,356 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.junit.model.JUnitModel;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.junit.JUnitCore;
+import org.eclipse.jdt.launching.JavaRuntime;
+
+/**
+ * Generates a workspace project with the same layout as the {@code JUnit-LWE}
+ * fixture project, but with an arbitrary number of test elements: {@code N}
+ * packages of {@code M} {@code TestCase} classes with {@code K} test methods
+ * each, an {@code AllTests} suite per package and a library jar built from a
+ * companion {@code -lib} project (like {@code JUnit-LWE-lib.jar}).
+ * <p>
+ * As in the original fixture, each package also contains a non-test class
+ * ({@code A}), test methods named {@code testGetStr<k>} pass and test methods
+ * named {@code testSetStr<k>} fail.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+final class JUnitLWEFixtureGenerator {
+
+	static final String PLUGIN_ID = "org.eclipse.jdt.junit.core.contrib.junitlwe.test";
+
+	static final String BASE_PACKAGE = "junit.lwe.gen";
+
+	static final String LIB_PACKAGE = BASE_PACKAGE + ".submodule";
+
+	private final int numberOfPackages;
+
+	private final int classesPerPackage;
+
+	private final int methodsPerClass;
+
+	/**
+	 * @param numberOfPackages
+	 *            the number of test packages to generate
+	 * @param classesPerPackage
+	 *            the number of test classes per package (also used for the
+	 *            single package of the library jar)
+	 * @param methodsPerClass
+	 *            the number of test methods per class
+	 */
+	public JUnitLWEFixtureGenerator(final int numberOfPackages, final int classesPerPackage, final int methodsPerClass) {
+		this.numberOfPackages = numberOfPackages;
+		this.classesPerPackage = classesPerPackage;
+		this.methodsPerClass = methodsPerClass;
+	}
+
+	/**
+	 * @return the number of test methods in the generated project's sources
+	 *         (excluding the ones in the library jar)
+	 */
+	public int getNumberOfTestMethods() {
+		return numberOfPackages * classesPerPackage * methodsPerClass;
+	}
+
+	/**
+	 * @return the number of test methods in the generated library jar
+	 */
+	public int getNumberOfLibTestMethods() {
+		return classesPerPackage * methodsPerClass;
+	}
+
+	public static String getPackageName(final int packageIndex) {
+		return BASE_PACKAGE + ".p" + packageIndex;
+	}
+
+	public static String getTestClassName(final int classIndex) {
+		return "TP" + classIndex;
+	}
+
+	public static String getTestMethodName(final int methodIndex) {
+		return (methodIndex % 2 == 0 ? "testGetStr" : "testSetStr") + methodIndex;
+	}
+
+	/**
+	 * @return the project generated by a previous call to
+	 *         {@link #generate(String)} if it still exists in the workspace,
+	 *         otherwise the newly generated one
+	 */
+	public IProject getOrGenerate(final String projectName) throws CoreException {
+		final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+		if (project.exists()) {
+			return project;
+		}
+		return generate(projectName);
+	}
+
+	/**
+	 * Generates (or re-generates) and builds the project with the given name,
+	 * as well as its {@code <projectName>-lib} companion project.
+	 *
+	 * @param projectName
+	 *            the name of the project to generate
+	 * @return the generated project
+	 * @throws CoreException
+	 */
+	public IProject generate(final String projectName) throws CoreException {
+		final IProgressMonitor monitor = new NullProgressMonitor();
+		final IProject libProject = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName + "-lib");
+		final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(final IProgressMonitor monitor) throws CoreException {
+				final IJavaProject libJavaProject = createJavaProject(libProject, monitor);
+				generateTestPackage(libProject.getFolder("src"), LIB_PACKAGE, monitor);
+				setClasspath(libJavaProject, null, monitor);
+			}
+		}, monitor);
+		libProject.build(IncrementalProjectBuilder.FULL_BUILD, monitor);
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(final IProgressMonitor monitor) throws CoreException {
+				final IJavaProject javaProject = createJavaProject(project, monitor);
+				final IFolder libFolder = project.getFolder("lib");
+				libFolder.create(true, true, monitor);
+				final IFile libJar = libFolder.getFile(libProject.getName() + ".jar");
+				createJar(libProject.getFolder("bin"), libJar, monitor);
+				for (int p = 0; p < numberOfPackages; p++) {
+					generateTestPackage(project.getFolder("src"), getPackageName(p), monitor);
+				}
+				setClasspath(javaProject, libJar, monitor);
+			}
+		}, monitor);
+		project.build(IncrementalProjectBuilder.FULL_BUILD, monitor);
+		return project;
+	}
+
+	/**
+	 * Imports a test run session with all the test methods that this generator
+	 * generates in the sources of a project, as if they were run and passed,
+	 * without launching them (eg: to show tens of thousands of test elements
+	 * in the JUnit view). The test classes of each package are nested in their
+	 * {@code AllTests} suite. Only the project's name is needed, so the
+	 * session may reference more test classes than the project actually has.
+	 *
+	 * @param projectName
+	 *            the name of the project in which the tests were run
+	 * @return the imported session, which is added to the JUnit model
+	 * @throws CoreException
+	 */
+	public TestRunSession importTestRunSession(final String projectName) throws CoreException {
+		final int tests = getNumberOfTestMethods();
+		final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<testrun name=\"").append(projectName).append("\" project=\"").append(projectName)
+				.append("\" tests=\"").append(tests).append("\" started=\"").append(tests)
+				.append("\" failures=\"0\" errors=\"0\" ignored=\"0\">\n");
+		for (int p = 0; p < numberOfPackages; p++) {
+			final String packageName = getPackageName(p);
+			xml.append("  <testsuite name=\"").append(packageName).append(".AllTests\" time=\"0.0\">\n");
+			for (int c = 0; c < classesPerPackage; c++) {
+				final String testClassName = packageName + "." + getTestClassName(c);
+				xml.append("    <testsuite name=\"").append(testClassName).append("\" time=\"0.0\">\n");
+				for (int m = 0; m < methodsPerClass; m++) {
+					xml.append("      <testcase name=\"").append(getTestMethodName(m)).append("\" classname=\"")
+							.append(testClassName).append("\" time=\"0.0\"/>\n");
+				}
+				xml.append("    </testsuite>\n");
+			}
+			xml.append("  </testsuite>\n");
+		}
+		xml.append("</testrun>\n");
+		try {
+			final File results = File.createTempFile(projectName, ".xml");
+			try {
+				final Writer writer = new OutputStreamWriter(new FileOutputStream(results), "UTF-8");
+				try {
+					writer.write(xml.toString());
+				} finally {
+					writer.close();
+				}
+				return JUnitModel.importTestRunSession(results);
+			} finally {
+				results.delete();
+			}
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, PLUGIN_ID, "Failed to write the test run session of "
+					+ projectName, e));
+		}
+	}
+
+	private static IJavaProject createJavaProject(final IProject project, final IProgressMonitor monitor)
+			throws CoreException {
+		if (project.exists()) {
+			project.delete(true, true, monitor);
+		}
+		project.create(monitor);
+		project.open(monitor);
+		final IProjectDescription description = project.getDescription();
+		description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+		project.setDescription(description, monitor);
+		project.getFolder("src").create(true, true, monitor);
+		return JavaCore.create(project);
+	}
+
+	private static void setClasspath(final IJavaProject javaProject, final IFile libJar, final IProgressMonitor monitor)
+			throws CoreException {
+		final IProject project = javaProject.getProject();
+		final IClasspathEntry[] entries = new IClasspathEntry[libJar == null ? 3 : 4];
+		entries[0] = JavaCore.newSourceEntry(project.getFolder("src").getFullPath());
+		entries[1] = JavaRuntime.getDefaultJREContainerEntry();
+		entries[2] = JavaCore.newContainerEntry(JUnitCore.JUNIT4_CONTAINER_PATH);
+		if (libJar != null) {
+			entries[3] = JavaCore.newLibraryEntry(libJar.getFullPath(), null, null);
+		}
+		javaProject.setRawClasspath(entries, project.getFolder("bin").getFullPath(), monitor);
+	}
+
+	private void generateTestPackage(final IFolder sourceFolder, final String packageName,
+			final IProgressMonitor monitor) throws CoreException {
+		IContainer packageFolder = sourceFolder;
+		for (String segment : packageName.split("\\.")) {
+			final IFolder folder = packageFolder.getFolder(new Path(segment));
+			if (!folder.exists()) {
+				folder.create(true, true, monitor);
+			}
+			packageFolder = folder;
+		}
+		createFile(packageFolder, "A.java", generateNonTestClass(packageName), monitor);
+		for (int c = 0; c < classesPerPackage; c++) {
+			createFile(packageFolder, getTestClassName(c) + ".java", generateTestClass(packageName, c), monitor);
+		}
+		createFile(packageFolder, "AllTests.java", generateTestSuite(packageName), monitor);
+	}
+
+	private static String generateNonTestClass(final String packageName) {
+		final StringBuilder source = new StringBuilder();
+		source.append("package ").append(packageName).append(";\n\n");
+		source.append("public class A {\n");
+		source.append("\tprivate String str;\n\n");
+		source.append("\tpublic String getStr() {\n\t\treturn str;\n\t}\n\n");
+		source.append("\tpublic void setStr(String str) {\n\t\tthis.str = str;\n\t}\n");
+		source.append("}\n");
+		return source.toString();
+	}
+
+	private String generateTestClass(final String packageName, final int classIndex) {
+		final StringBuilder source = new StringBuilder();
+		source.append("package ").append(packageName).append(";\n\n");
+		source.append("import junit.framework.TestCase;\n\n");
+		source.append("import org.junit.Test;\n\n");
+		source.append("public class ").append(getTestClassName(classIndex)).append(" extends TestCase {\n");
+		source.append("\t\n\tString s;\n");
+		for (int m = 0; m < methodsPerClass; m++) {
+			source.append("\n\t@Test\n");
+			source.append("\tpublic void ").append(getTestMethodName(m)).append("() {\n");
+			source.append("\t\tA a= new A();\n");
+			source.append("\t\ta.setStr(\"").append(m % 2 == 0 ? "get" : "set").append("\");\n");
+			source.append("\t\tassertEquals(a.getStr(), \"get\");\n");
+			source.append("\t}\n");
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+
+	private String generateTestSuite(final String packageName) {
+		final StringBuilder source = new StringBuilder();
+		source.append("package ").append(packageName).append(";\n\n");
+		source.append("import junit.framework.Test;\n");
+		source.append("import junit.framework.TestCase;\n");
+		source.append("import junit.framework.TestSuite;\n\n");
+		source.append("public class AllTests extends TestCase {\n\n");
+		source.append("\tpublic static Test suite() {\n");
+		source.append("\t\tTestSuite suite = new TestSuite(AllTests.class.getName());\n");
+		source.append("\t\t//$JUnit-BEGIN$\n");
+		for (int c = 0; c < classesPerPackage; c++) {
+			source.append("\t\tsuite.addTestSuite(").append(getTestClassName(c)).append(".class);\n");
+		}
+		source.append("\t\t//$JUnit-END$\n");
+		source.append("\t\treturn suite;\n");
+		source.append("\t}\n");
+		source.append("}\n");
+		return source.toString();
+	}
+
+	private static void createFile(final IContainer container, final String name, final String contents,
+			final IProgressMonitor monitor) throws CoreException {
+		container.getFile(new Path(name)).create(
+				new ByteArrayInputStream(contents.getBytes()), true, monitor);
+	}
+
+	private static void createJar(final IFolder outputFolder, final IFile jarFile, final IProgressMonitor monitor)
+			throws CoreException {
+		final ByteArrayOutputStream jarContents = new ByteArrayOutputStream();
+		try {
+			final Manifest manifest = new Manifest();
+			manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+			final JarOutputStream jarOutputStream = new JarOutputStream(jarContents, manifest);
+			try {
+				addJarEntries(outputFolder, "", jarOutputStream);
+			} finally {
+				jarOutputStream.close();
+			}
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, PLUGIN_ID, "Failed to create " + jarFile.getName(), e));
+		}
+		jarFile.create(new ByteArrayInputStream(jarContents.toByteArray()), true, monitor);
+	}
+
+	private static void addJarEntries(final IContainer container, final String prefix,
+			final JarOutputStream jarOutputStream) throws CoreException, IOException {
+		for (IResource member : container.members()) {
+			final String entryName = prefix + member.getName();
+			if (member instanceof IContainer) {
+				jarOutputStream.putNextEntry(new JarEntry(entryName + "/"));
+				jarOutputStream.closeEntry();
+				addJarEntries((IContainer) member, entryName + "/", jarOutputStream);
+			} else {
+				jarOutputStream.putNextEntry(new JarEntry(entryName));
+				final InputStream contents = ((IFile) member).getContents();
+				try {
+					final byte[] buffer = new byte[8192];
+					int read;
+					while ((read = contents.read(buffer)) != -1) {
+						jarOutputStream.write(buffer, 0, read);
+					}
+				} finally {
+					contents.close();
+				}
+				jarOutputStream.closeEntry();
+			}
+		}
+	}
+
+}
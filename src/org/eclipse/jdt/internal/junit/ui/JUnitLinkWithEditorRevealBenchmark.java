@@ -0,0 +1,122 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.eclipse.jdt.ui.junit.JUnitView;
+import org.jboss.reddeer.eclipse.ui.views.contentoutline.OutlineView;
+import org.jboss.reddeer.swt.api.TreeItem;
+import org.junit.Test;
+
+/**
+ * Measures how long it takes to reveal a test element in the editor and in
+ * the Outline view when it is selected in the JUnit view with "Link with
+ * Editor" enabled, for every test element of a large test run session, with
+ * test classes in source files on one hand, and in class files of a library
+ * jar on the other hand. Results are written in
+ * {@code junit-view-to-editor-reveal.json} in the reports directory (see
+ * {@link BenchmarkReport}).
+ */
+public class JUnitLinkWithEditorRevealBenchmark extends AbstractJUnitLinkWithEditorTest {
+
+	static final String REVEAL_TEST_PROJECT = "JUnit-LWE-Reveal";
+
+	private static final int PACKAGES = 2;
+
+	private static final int CLASSES_PER_PACKAGE = 5;
+
+	private static final int METHODS_PER_CLASS = 20;
+
+	private static final JUnitLWEFixtureGenerator GENERATOR = new JUnitLWEFixtureGenerator(PACKAGES,
+			CLASSES_PER_PACKAGE, METHODS_PER_CLASS);
+
+	private static final BenchmarkReport REPORT = new BenchmarkReport("junit-view-to-editor-reveal");
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void measureRevealLatencyOfTestElementsInSourceFiles() throws Exception {
+		// given
+		GENERATOR.getOrGenerate(REVEAL_TEST_PROJECT);
+		launchAllTests(REVEAL_TEST_PROJECT, TimePeriod.VERY_LONG);
+		open(new OutlineView());
+		final JUnitView junitView = new JUnitView();
+		open(junitView);
+		// when selecting each test element in turn
+		final EditorSelectionProbe selectionProbe = new EditorSelectionProbe();
+		selectionProbe.attach();
+		try {
+			for (int p = 0; p < PACKAGES; p++) {
+				for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+					measureRevealLatency(junitView, selectionProbe, JUnitLWEFixtureGenerator.getPackageName(p), c,
+							"source", TimePeriod.NORMAL);
+				}
+			}
+		} finally {
+			selectionProbe.detach();
+		}
+		// then
+		assertTrue(REPORT.getLatencies("source/editor").getCount() > 0);
+		REPORT.write();
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void measureRevealLatencyOfTestElementsInClassFiles() throws Exception {
+		// given
+		GENERATOR.getOrGenerate(REVEAL_TEST_PROJECT);
+		launchAllNestedTests(REVEAL_TEST_PROJECT, REVEAL_TEST_PROJECT + "-lib.jar", TimePeriod.VERY_LONG);
+		open(new OutlineView());
+		final JUnitView junitView = new JUnitView();
+		open(junitView);
+		// when selecting each test element in turn
+		final EditorSelectionProbe selectionProbe = new EditorSelectionProbe();
+		selectionProbe.attach();
+		try {
+			for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+				// class files have no attached source, so don't wait too long for
+				// a text selection in their editor
+				measureRevealLatency(junitView, selectionProbe, JUnitLWEFixtureGenerator.LIB_PACKAGE, c, "binary",
+						TimePeriod.SHORT);
+			}
+		} finally {
+			selectionProbe.detach();
+		}
+		// then
+		assertTrue(REPORT.getLatencies("binary/outline").getCount() > 0);
+		REPORT.write();
+	}
+
+	/**
+	 * Selects each test method of the given test class in the JUnit view and
+	 * records the time until it is revealed in the editor and in the Outline
+	 * view. Reveals that did not happen are counted rather than failing the
+	 * benchmark (eg: no text selection in class files without attached
+	 * source).
+	 */
+	private void measureRevealLatency(final JUnitView junitView, final EditorSelectionProbe selectionProbe,
+			final String packageName, final int classIndex, final String kind, final TimePeriod editorTimePeriod) {
+		final String testClassName = packageName + "." + JUnitLWEFixtureGenerator.getTestClassName(classIndex);
+		for (int m = 0; m < METHODS_PER_CLASS; m++) {
+			final String testMethodName = JUnitLWEFixtureGenerator.getTestMethodName(m);
+			activate(junitView);
+			final TreeItem testElement = getTestElement(testClassName, testMethodName);
+			selectionProbe.clear();
+			final long start = System.nanoTime();
+			select(testElement);
+			record(kind + "/editor", selectionProbe.awaitEditorSelection(testMethodName, start, editorTimePeriod));
+			record(kind + "/outline", selectionProbe.awaitOutlineSelection(testMethodName, start, TimePeriod.SHORT));
+		}
+	}
+
+	private static void record(final String key, final long latency) {
+		if (latency >= 0) {
+			REPORT.getLatencies(key).record(latency);
+		} else {
+			REPORT.incrementCounter(key + "/missed");
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.eclipse.jdt.ui.ProjectExplorer;
+import org.jboss.reddeer.eclipse.jdt.ui.junit.JUnitView;
+import org.jboss.reddeer.swt.api.TreeItem;
+import org.jboss.reddeer.swt.impl.tree.DefaultTree;
+import org.jboss.reddeer.workbench.impl.editor.TextEditor;
+import org.junit.Test;
+
+/**
+ * Measures how long the JUnit view takes to follow the selection in the
+ * editor when "Link with Editor" is enabled, over a large number of caret
+ * moves, including in a huge test run where the JUnit view must only create
+ * the tree items along the revealed path. Results are written in
+ * {@code editor-to-junit-view-sync.json} in the reports directory (see
+ * {@link BenchmarkReport}).
+ */
+@SuppressWarnings("restriction")
+public class JUnitLinkWithEditorSelectionSyncBenchmark extends AbstractJUnitLinkWithEditorTest {
+
+	static final int ITERATIONS = Integer.getInteger("junitlwe.benchmark.iterations", 200);
+
+	static final String LARGE_TEST_PROJECT = "JUnit-LWE-Large";
+
+	static final int LARGE_TEST_CLASS_METHODS = 500;
+
+	/** the number of test classes of the huge test run (50k test methods). */
+	private static final int HUGE_TEST_RUN_CLASSES = 100;
+
+	private static final long HUGE_TEST_RUN_SYNC_BUDGET_MILLIS = Long.getLong("junitlwe.benchmark.hugeRunBudget", 2000);
+
+	private static final BenchmarkReport REPORT = new BenchmarkReport("editor-to-junit-view-sync");
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.ALL)
+	public void measureSyncLatencyWhenSelectingMethodNamesInTestClassEditor() throws Exception {
+		// given TP1.java opened from the JUnit view
+		open(new JUnitView());
+		doubleClick(getTestElement("junit.lwe.TP1", "testGetStr1"));
+		final TextEditor editor = new TextEditor();
+		activate(editor);
+		// when moving the caret back and forth between the test methods
+		measureSyncLatency(editor, new String[] { "testSetStr1", "testGetStr1" }, REPORT.getLatencies("TP1.java"));
+		// then
+		REPORT.write();
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void measureSyncLatencyWhenSelectingMethodNamesInLargeTestClassEditor() throws Exception {
+		// given a test class with many test methods, opened from the JUnit view
+		new JUnitLWEFixtureGenerator(1, 1, LARGE_TEST_CLASS_METHODS).getOrGenerate(LARGE_TEST_PROJECT);
+		launchAllTests(LARGE_TEST_PROJECT, TimePeriod.VERY_LONG);
+		final String testClassName = JUnitLWEFixtureGenerator.getPackageName(0) + "."
+				+ JUnitLWEFixtureGenerator.getTestClassName(0);
+		open(new JUnitView());
+		doubleClick(getTestElement(testClassName, JUnitLWEFixtureGenerator.getTestMethodName(0)));
+		final TextEditor editor = new TextEditor();
+		activate(editor);
+		// when moving the caret across all the test methods
+		final String[] methodNames = new String[LARGE_TEST_CLASS_METHODS];
+		for (int i = 0; i < methodNames.length; i++) {
+			methodNames[i] = JUnitLWEFixtureGenerator.getTestMethodName((i + 1) % methodNames.length);
+		}
+		measureSyncLatency(editor, methodNames, REPORT.getLatencies(JUnitLWEFixtureGenerator.getTestClassName(0)
+				+ ".java (" + LARGE_TEST_CLASS_METHODS + " methods)"));
+		// then
+		REPORT.write();
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void measureSyncLatencyWhenSelectingMethodNameInHugeTestRun() throws Exception {
+		// given a session of 50k test methods (none of them expanded in the
+		// JUnit view) and the editor of one of its test classes
+		new JUnitLWEFixtureGenerator(1, 1, LARGE_TEST_CLASS_METHODS).getOrGenerate(LARGE_TEST_PROJECT);
+		final TestRunSession hugeSession = new JUnitLWEFixtureGenerator(1, HUGE_TEST_RUN_CLASSES,
+				LARGE_TEST_CLASS_METHODS).importTestRunSession(LARGE_TEST_PROJECT);
+		final JUnitViewSelectionProbe selectionProbe = new JUnitViewSelectionProbe();
+		try {
+			final JUnitView junitView = new JUnitView();
+			open(junitView);
+			show(hugeSession);
+			final Tree tree = new DefaultTree().getSWTWidget();
+			final int initialTreeItems = countTreeItems(tree);
+			final String packageName = JUnitLWEFixtureGenerator.getPackageName(0);
+			final String testClassName = JUnitLWEFixtureGenerator.getTestClassName(0);
+			final ProjectExplorer projectExplorer = new ProjectExplorer();
+			open(projectExplorer);
+			activate(projectExplorer);
+			open(projectExplorer.getProject(LARGE_TEST_PROJECT).getProjectItem("src", packageName,
+					testClassName + ".java"));
+			final TextEditor editor = new TextEditor(testClassName + ".java");
+			activate(editor);
+			// when selecting the last test method in the editor
+			final String methodName = JUnitLWEFixtureGenerator.getTestMethodName(LARGE_TEST_CLASS_METHODS - 1);
+			selectionProbe.attach();
+			selectionProbe.clear();
+			final long start = System.nanoTime();
+			selectText(editor, methodName);
+			final long latency = selectionProbe.awaitSelection(methodName, start, TimePeriod.LONG);
+			// then the JUnit view follows within the budget, creating only the
+			// items of the nodes along the revealed path
+			assertTrue("JUnit view did not select " + methodName, latency >= 0);
+			REPORT.getLatencies("huge test run (" + HUGE_TEST_RUN_CLASSES * LARGE_TEST_CLASS_METHODS + " methods)")
+					.record(latency);
+			assertTrue("JUnit view took " + TimeUnit.NANOSECONDS.toMillis(latency) + "ms to select " + methodName,
+					latency <= TimeUnit.MILLISECONDS.toNanos(HUGE_TEST_RUN_SYNC_BUDGET_MILLIS));
+			final int createdTreeItems = countTreeItems(tree) - initialTreeItems;
+			assertTrue("JUnit view created " + createdTreeItems + " items",
+					createdTreeItems <= HUGE_TEST_RUN_CLASSES + LARGE_TEST_CLASS_METHODS);
+			// and the lazy tree index finds the selected item without creating
+			// or expanding any other item
+			final TreeItem testElement = getTestElement(packageName + ".AllTests", packageName + "."
+					+ testClassName, methodName);
+			assertTrue(testElement.isSelected());
+			assertEquals(initialTreeItems + createdTreeItems, countTreeItems(tree));
+		} finally {
+			selectionProbe.detach();
+			JUnitCorePlugin.getModel().removeTestRunSession(hugeSession);
+			REPORT.write();
+		}
+	}
+
+	/**
+	 * Makes the given session the active one in the (opened) JUnit view.
+	 */
+	private static void show(final TestRunSession testRunSession) {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				final IViewPart viewPart = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
+						.findView(TestRunnerViewPart.NAME);
+				JUnitRunCache.activate((TestRunnerViewPart) viewPart, testRunSession);
+			}
+		});
+	}
+
+	/**
+	 * @return the number of items created so far in the given tree, excluding
+	 *         the placeholders of the collapsed nodes
+	 */
+	private static int countTreeItems(final Tree tree) {
+		return Display.syncExec(new ResultRunnable<Integer>() {
+			@Override
+			public Integer run() {
+				return countTreeItems(tree.getItems());
+			}
+		});
+	}
+
+	private static int countTreeItems(final org.eclipse.swt.widgets.TreeItem[] items) {
+		int count = 0;
+		for (org.eclipse.swt.widgets.TreeItem item : items) {
+			if (item.getText().length() > 0) {
+				count += 1 + countTreeItems(item.getItems());
+			}
+		}
+		return count;
+	}
+
+	private void measureSyncLatency(final TextEditor editor, final String[] methodNames,
+			final LatencyStatistics latencies) {
+		final JUnitViewSelectionProbe selectionProbe = new JUnitViewSelectionProbe();
+		selectionProbe.attach();
+		try {
+			for (int i = 0; i < ITERATIONS; i++) {
+				final String methodName = methodNames[i % methodNames.length];
+				selectionProbe.clear();
+				final long start = System.nanoTime();
+				selectText(editor, methodName);
+				final long latency = selectionProbe.awaitSelection(methodName, start, TimePeriod.NORMAL);
+				assertTrue("JUnit view did not select " + methodName, latency >= 0);
+				latencies.record(latency);
+			}
+		} finally {
+			selectionProbe.detach();
+		}
+	}
+
+}
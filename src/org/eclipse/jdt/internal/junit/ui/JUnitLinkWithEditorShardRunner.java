@@ -0,0 +1,111 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+
+/**
+ * Orders the test methods of a class by {@link Scenario} (ie, by
+ * {@link RunJUnitTests#type()}, then by {@link LinkWithEditor#enabled()}), so
+ * that the test methods sharing a JUnit run and a "Link with Editor" state run
+ * back to back and can reuse the state left by the previous one. The test
+ * methods annotated with {@link ScenarioMatrix} are expanded into one test per
+ * scenario of their matrix.
+ * <p>
+ * Only the test methods that belong to the shard given by the
+ * {@code junitlwe.shard.index} and {@code junitlwe.shard.count} system
+ * properties are run, so that the tests can be spread over several workbench
+ * processes (see {@code scripts/run-sharded-tests.sh}). Test methods are
+ * partitioned by scenario, so that the methods sharing a JUnit run stay in the
+ * same workbench. All test methods are run when no shard is given.
+ * </p>
+ */
+public class JUnitLinkWithEditorShardRunner extends BlockJUnit4ClassRunner {
+
+	static final String SHARD_INDEX_PROPERTY = "junitlwe.shard.index";
+
+	static final String SHARD_COUNT_PROPERTY = "junitlwe.shard.count";
+
+	private final int shardIndex;
+
+	private final int shardCount;
+
+	public JUnitLinkWithEditorShardRunner(final Class<?> testClass) throws InitializationError {
+		this(testClass, Integer.getInteger(SHARD_INDEX_PROPERTY, 0), Integer.getInteger(SHARD_COUNT_PROPERTY, 1));
+	}
+
+	JUnitLinkWithEditorShardRunner(final Class<?> testClass, final int shardIndex, final int shardCount)
+			throws InitializationError {
+		super(testClass);
+		if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+			throw new InitializationError("Invalid shard " + shardIndex + " of " + shardCount);
+		}
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+	}
+
+	/**
+	 * @return the key of the partition of the given test method, shared by
+	 *         all the methods with the same JUnit run and link state
+	 */
+	static String getPartitionKey(final FrameworkMethod method) {
+		return Scenario.of(method).toString();
+	}
+
+	/**
+	 * @return the test methods and the cells of the {@link ScenarioMatrix}
+	 *         test methods, ordered by scenario, then by name within a
+	 *         scenario (rather than in the {@code MethodSorter} order of
+	 *         JUnit, which depends on the hash codes of the method names)
+	 */
+	@Override
+	protected List<FrameworkMethod> computeTestMethods() {
+		final List<FrameworkMethod> methods = new ArrayList<FrameworkMethod>();
+		for (FrameworkMethod method : super.computeTestMethods()) {
+			if (method.getAnnotation(ScenarioMatrix.class) == null) {
+				methods.add(method);
+			} else {
+				methods.addAll(Scenario.expand(method));
+			}
+		}
+		Collections.sort(methods, new Comparator<FrameworkMethod>() {
+			@Override
+			public int compare(final FrameworkMethod method, final FrameworkMethod otherMethod) {
+				final int scenarioComparison = Scenario.of(method).compareTo(Scenario.of(otherMethod));
+				return scenarioComparison != 0 ? scenarioComparison : method.getName().compareTo(
+						otherMethod.getName());
+			}
+		});
+		return methods;
+	}
+
+	@Override
+	protected List<FrameworkMethod> getChildren() {
+		final List<FrameworkMethod> methods = super.getChildren();
+		if (shardCount == 1) {
+			return methods;
+		}
+		// assign the sorted partitions to the shards in turn, so that every
+		// process computes the same assignment
+		final SortedSet<String> partitionKeys = new TreeSet<String>();
+		for (FrameworkMethod method : methods) {
+			partitionKeys.add(getPartitionKey(method));
+		}
+		final List<String> sortedPartitionKeys = new ArrayList<String>(partitionKeys);
+		final List<FrameworkMethod> shardMethods = new ArrayList<FrameworkMethod>();
+		for (FrameworkMethod method : methods) {
+			if (sortedPartitionKeys.indexOf(getPartitionKey(method)) % shardCount == shardIndex) {
+				shardMethods.add(method);
+			}
+		}
+		return shardMethods;
+	}
+
+}
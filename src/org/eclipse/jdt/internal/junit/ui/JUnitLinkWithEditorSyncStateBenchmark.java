@@ -0,0 +1,310 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.common.condition.WaitCondition;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.eclipse.jdt.ui.junit.JUnitView;
+import org.jboss.reddeer.swt.api.ToolItem;
+import org.jboss.reddeer.swt.impl.toolbar.DefaultToolItem;
+import org.junit.Test;
+
+/**
+ * Cycles the activation among many open test and non-test editors, and counts
+ * how many times the JUnit view updates its "Link with Editor" tool item and
+ * recomputes its icon (synced or broken sync) per activation, in order to
+ * detect redundant refreshes, and checks that the JUnit view shows the broken
+ * sync icon within a budget when activating hundreds of non-test editors.
+ * Results are written in {@code sync-state-recomputation.json} in the reports
+ * directory (see {@link BenchmarkReport}).
+ */
+public class JUnitLinkWithEditorSyncStateBenchmark extends AbstractJUnitLinkWithEditorTest {
+
+	static final String EDITORS_TEST_PROJECT = "JUnit-LWE-Editors";
+
+	static final int ROUNDS = Integer.getInteger("junitlwe.benchmark.rounds", 10);
+
+	/**
+	 * The time without update after which the JUnit view is considered done
+	 * with an activation.
+	 */
+	private static final long QUIET_MILLIS = 200;
+
+	private static final JUnitLWEFixtureGenerator GENERATOR = new JUnitLWEFixtureGenerator(4, 5, 2);
+
+	private static final BenchmarkReport REPORT = new BenchmarkReport("sync-state-recomputation");
+
+	static final String NON_TEST_EDITORS_PROJECT = "JUnit-LWE-NonTest";
+
+	/** the number of non-test classes (one per generated package). */
+	private static final int NON_TEST_EDITORS = 200;
+
+	private static final JUnitLWEFixtureGenerator NON_TEST_GENERATOR = new JUnitLWEFixtureGenerator(
+			NON_TEST_EDITORS, 1, 1);
+
+	private static final long BROKEN_SYNC_BUDGET_MILLIS = Long.getLong("junitlwe.benchmark.brokenSyncBudget", 250);
+
+	/**
+	 * Waits until a tool item shows the given icon.
+	 */
+	private static final class ToolItemIconCondition implements WaitCondition {
+
+		private final ToolItem toolItem;
+
+		private final String iconName;
+
+		ToolItemIconCondition(final ToolItem toolItem, final String iconName) {
+			this.toolItem = toolItem;
+			this.iconName = iconName;
+		}
+
+		@Override
+		public boolean test() {
+			return IconFingerprint.forIcon(iconName).equals(ToolItemState.capture(toolItem).getIcon());
+		}
+
+		@Override
+		public String description() {
+			return "the tool item shows " + iconName;
+		}
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void countUpdatesPerEditorActivation() throws Exception {
+		// given many test and non-test editors opened after running their tests
+		final List<IEditorPart> editors = openEditorsAfterRunningTests();
+		final DefaultToolItem viewToolItem = new DefaultToolItem(LINK_WITH_EDITOR);
+		final LinkWithEditorActionProbe actionProbe = new LinkWithEditorActionProbe();
+		assertTrue("Link with Editor is not contributed as an action", actionProbe.attach(viewToolItem));
+		long activations = 0;
+		long redundantImageUpdates = 0;
+		int maxImageUpdates = 0;
+		int maxToolItemUpdates = 0;
+		try {
+			// when activating the editors in turn, waiting for the JUnit view to
+			// settle after each activation
+			for (int round = 0; round < ROUNDS; round++) {
+				for (IEditorPart editor : editors) {
+					final IconFingerprint iconBefore = ToolItemState.capture(viewToolItem).getIcon();
+					final int imageUpdatesBefore = actionProbe.getImageUpdates();
+					final int toolItemUpdatesBefore = actionProbe.getToolItemUpdates();
+					REPORT.getLatencies("activation").record(activate(editor));
+					assertTrue("Link with Editor kept being updated after activating " + editor.getTitle(),
+							actionProbe.awaitQuiet(QUIET_MILLIS, TimePeriod.SHORT));
+					final int imageUpdates = actionProbe.getImageUpdates() - imageUpdatesBefore;
+					final int toolItemUpdates = actionProbe.getToolItemUpdates() - toolItemUpdatesBefore;
+					final IconFingerprint iconAfter = ToolItemState.capture(viewToolItem).getIcon();
+					if (iconBefore != null && iconBefore.equals(iconAfter)) {
+						// the icon did not change, so any recomputation was useless
+						redundantImageUpdates += imageUpdates;
+					} else if (imageUpdates > 1) {
+						redundantImageUpdates += imageUpdates - 1;
+					}
+					maxImageUpdates = Math.max(maxImageUpdates, imageUpdates);
+					maxToolItemUpdates = Math.max(maxToolItemUpdates, toolItemUpdates);
+					activations++;
+				}
+			}
+		} finally {
+			actionProbe.detach();
+		}
+		// then
+		final ToolItemState toolItemState = ToolItemState.capture(viewToolItem);
+		assertTrue(toolItemState.isEnabled());
+		assertTrue(toolItemState.isSelected());
+		REPORT.setCounter("settled/editors", editors.size());
+		REPORT.setCounter("settled/activations", activations);
+		REPORT.setCounter("settled/imageUpdates", actionProbe.getImageUpdates());
+		REPORT.setCounter("settled/toolItemUpdates", actionProbe.getToolItemUpdates());
+		REPORT.setCounter("settled/redundantImageUpdates", redundantImageUpdates);
+		REPORT.setCounter("settled/maxImageUpdatesPerActivation", maxImageUpdates);
+		REPORT.setCounter("settled/maxToolItemUpdatesPerActivation", maxToolItemUpdates);
+		REPORT.write();
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.NONE)
+	public void countUpdatesForBurstOfEditorActivations() throws Exception {
+		// given many test and non-test editors opened after running their tests
+		final List<IEditorPart> editors = openEditorsAfterRunningTests();
+		final DefaultToolItem viewToolItem = new DefaultToolItem(LINK_WITH_EDITOR);
+		final LinkWithEditorActionProbe actionProbe = new LinkWithEditorActionProbe();
+		assertTrue("Link with Editor is not contributed as an action", actionProbe.attach(viewToolItem));
+		long activations = 0;
+		try {
+			// when activating the editors in turn as fast as possible
+			final long start = System.nanoTime();
+			for (int round = 0; round < ROUNDS; round++) {
+				for (IEditorPart editor : editors) {
+					activate(editor);
+					activations++;
+				}
+			}
+			REPORT.getLatencies("burst").record(System.nanoTime() - start);
+			assertTrue("Link with Editor kept being updated after the burst of activations",
+					actionProbe.awaitQuiet(QUIET_MILLIS, TimePeriod.NORMAL));
+		} finally {
+			actionProbe.detach();
+		}
+		// then
+		final ToolItemState toolItemState = ToolItemState.capture(viewToolItem);
+		assertTrue(toolItemState.isEnabled());
+		assertTrue(toolItemState.isSelected());
+		REPORT.setCounter("burst/editors", editors.size());
+		REPORT.setCounter("burst/activations", activations);
+		REPORT.setCounter("burst/imageUpdates", actionProbe.getImageUpdates());
+		REPORT.setCounter("burst/toolItemUpdates", actionProbe.getToolItemUpdates());
+		REPORT.write();
+	}
+
+	@Test
+	@LinkWithEditor(enabled = true)
+	@RunJUnitTests(type = TestType.ALL)
+	public void shouldShowBrokenSyncWithinBudgetWhenActivatingManyNonTestEditors() throws Exception {
+		// given hundreds of editors of classes that are not part of the session,
+		// and the editor of one of its test classes
+		final IJavaProject nonTestProject = JavaCore.create(NON_TEST_GENERATOR
+				.getOrGenerate(NON_TEST_EDITORS_PROJECT));
+		final List<ICompilationUnit> nonTestClasses = new ArrayList<ICompilationUnit>();
+		for (int p = 0; p < NON_TEST_EDITORS; p++) {
+			nonTestClasses.add(nonTestProject.findType(JUnitLWEFixtureGenerator.getPackageName(p) + ".A")
+					.getCompilationUnit());
+		}
+		final ICompilationUnit testClass = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(TEST_PROJECT)).findType("junit.lwe.TP1").getCompilationUnit();
+		open(new JUnitView());
+		final IEditorPart testEditor = openInEditors(Collections.singletonList(testClass)).get(0);
+		final List<IEditorPart> nonTestEditors = openInEditors(nonTestClasses);
+		final DefaultToolItem viewToolItem = new DefaultToolItem(LINK_WITH_EDITOR);
+		final LinkWithEditorActionProbe actionProbe = new LinkWithEditorActionProbe();
+		assertTrue("Link with Editor is not contributed as an action", actionProbe.attach(viewToolItem));
+		final LatencyStatistics latencies = REPORT.getLatencies("brokenSync");
+		try {
+			// when activating each non-test editor right after the test editor
+			for (IEditorPart nonTestEditor : nonTestEditors) {
+				activate(testEditor);
+				AdaptiveWait.until(new ToolItemIconCondition(viewToolItem, SYNCED_IMAGE), TimePeriod.SHORT);
+				// the count is read after the start, so that the image updates it
+				// misses are still timed from the start
+				final long start = System.nanoTime();
+				final int imageUpdatesBefore = actionProbe.getImageUpdates();
+				activate(nonTestEditor);
+				AdaptiveWait.until(new ToolItemIconCondition(viewToolItem, SYNC_BROKEN_IMAGE), TimePeriod.SHORT);
+				// the latency ends when the JUnit view changed the image of
+				// its action, not when the backing off wait noticed it
+				assertTrue("the broken sync icon was not set through the action",
+						actionProbe.getImageUpdates() > imageUpdatesBefore);
+				final long latency = actionProbe.getLastImageUpdateNanoTime() - start;
+				assertTrue("the broken sync icon was set before activating " + nonTestEditor.getTitle(), latency >= 0);
+				latencies.record(latency);
+			}
+		} finally {
+			actionProbe.detach();
+		}
+		// then
+		REPORT.write();
+		final long p95 = latencies.getPercentile(95);
+		assertTrue("the broken sync icon took " + TimeUnit.NANOSECONDS.toMillis(p95) + "ms (p95) to show",
+				p95 <= TimeUnit.MILLISECONDS.toNanos(BROKEN_SYNC_BUDGET_MILLIS));
+	}
+
+	/**
+	 * Runs the tests of the generated project, and opens all its compilation
+	 * units in editors.
+	 *
+	 * @return the opened editors, alternating test and non-test editors as
+	 *         much as possible so that most activations change the sync state
+	 */
+	private List<IEditorPart> openEditorsAfterRunningTests() throws Exception {
+		final IProject project = GENERATOR.getOrGenerate(EDITORS_TEST_PROJECT);
+		launchAllTests(EDITORS_TEST_PROJECT, TimePeriod.VERY_LONG);
+		final List<ICompilationUnit> testClasses = new ArrayList<ICompilationUnit>();
+		final List<ICompilationUnit> nonTestClasses = new ArrayList<ICompilationUnit>();
+		for (IPackageFragment packageFragment : JavaCore.create(project).getPackageFragments()) {
+			if (packageFragment.getKind() == IPackageFragmentRoot.K_SOURCE) {
+				for (ICompilationUnit compilationUnit : packageFragment.getCompilationUnits()) {
+					if (compilationUnit.getElementName().equals("A.java")) {
+						nonTestClasses.add(compilationUnit);
+					} else {
+						testClasses.add(compilationUnit);
+					}
+				}
+			}
+		}
+		final List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
+		for (int i = 0; i < testClasses.size(); i++) {
+			compilationUnits.add(testClasses.get(i));
+			compilationUnits.add(nonTestClasses.get(i % nonTestClasses.size()));
+		}
+		open(new JUnitView());
+		final List<IEditorPart> editors = openInEditors(compilationUnits);
+		activate(new JUnitView());
+		return editors;
+	}
+
+	/**
+	 * Opens the given compilation units in editors, without activating them.
+	 *
+	 * @return the opened editors
+	 */
+	private static List<IEditorPart> openInEditors(final List<ICompilationUnit> compilationUnits) {
+		return Display.syncExec(new ResultRunnable<List<IEditorPart>>() {
+			@Override
+			public List<IEditorPart> run() {
+				final List<IEditorPart> editors = new ArrayList<IEditorPart>();
+				try {
+					for (ICompilationUnit compilationUnit : compilationUnits) {
+						editors.add(JavaUI.openInEditor(compilationUnit, false, false));
+					}
+				} catch (PartInitException e) {
+					throw new IllegalStateException(e);
+				} catch (JavaModelException e) {
+					throw new IllegalStateException(e);
+				}
+				return editors;
+			}
+		});
+	}
+
+	/**
+	 * Activates the given editor through the workbench API, bypassing RedDeer
+	 * lookups so that activations can follow each other quickly.
+	 *
+	 * @return the number of nanoseconds spent in the UI thread to activate the
+	 *         editor, including the synchronous part listeners
+	 */
+	private static long activate(final IEditorPart editor) {
+		return Display.syncExec(new ResultRunnable<Long>() {
+			@Override
+			public Long run() {
+				final long start = System.nanoTime();
+				PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage().activate(editor);
+				return System.nanoTime() - start;
+			}
+		});
+	}
+
+}
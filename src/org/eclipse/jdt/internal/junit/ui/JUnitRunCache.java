@@ -0,0 +1,156 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.lang.reflect.Field;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.ITestRunSessionListener;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.eclipse.jdt.internal.ui.viewsupport.ViewHistory;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+
+/**
+ * Keeps track of the JUnit {@link TestRunSession} launched for each
+ * {@link TestType}, so that each configuration is run only once and its
+ * session can be restored in the JUnit view's history before each test
+ * method. The cache also tracks which of these sessions the JUnit view shows,
+ * until any session is added to or removed from the JUnit model, so that
+ * consecutive test methods with the same {@link TestType} do not restore it
+ * again.
+ */
+@SuppressWarnings("restriction")
+class JUnitRunCache {
+
+	private final Map<TestType, TestRunSession> sessions = new EnumMap<TestType, TestRunSession>(TestType.class);
+
+	/** the type of the session shown in the JUnit view, if known. */
+	private volatile TestType shownTestType;
+
+	private final ITestRunSessionListener testRunSessionListener = new ITestRunSessionListener() {
+		@Override
+		public void sessionAdded(final TestRunSession testRunSession) {
+			shownTestType = null;
+		}
+
+		@Override
+		public void sessionRemoved(final TestRunSession testRunSession) {
+			shownTestType = null;
+		}
+	};
+
+	public JUnitRunCache() {
+		JUnitCorePlugin.getModel().addTestRunSessionListener(testRunSessionListener);
+	}
+
+	/**
+	 * Records the most recent session in the JUnit model as the run for the
+	 * given {@link TestType}.
+	 *
+	 * @param testType
+	 *            the type of tests that were just launched
+	 */
+	public void store(final TestType testType) {
+		final List<TestRunSession> testRunSessions = JUnitCorePlugin.getModel().getTestRunSessions();
+		if (testRunSessions.isEmpty()) {
+			sessions.remove(testType);
+			shownTestType = null;
+		} else {
+			sessions.put(testType, testRunSessions.get(0));
+			// a launched session is shown in the JUnit view
+			shownTestType = testType;
+		}
+	}
+
+	/**
+	 * @param testType
+	 *            the type of tests to look up
+	 * @return {@code true} if the JUnit view is open and still shows the
+	 *         session of the given {@link TestType}, as launched or restored
+	 *         for a previous test method
+	 */
+	public boolean isShown(final TestType testType) {
+		if (testType != shownTestType || sessions.get(testType) == null) {
+			return false;
+		}
+		return Display.syncExec(new ResultRunnable<Boolean>() {
+			@Override
+			public Boolean run() {
+				return PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
+						.findView(TestRunnerViewPart.NAME) != null;
+			}
+		});
+	}
+
+	/**
+	 * Opens the JUnit view and makes the session previously stored for the
+	 * given {@link TestType} the active one.
+	 *
+	 * @param testType
+	 *            the type of tests to restore
+	 * @return {@code true} if the session was restored, {@code false} if no
+	 *         session was stored or if it was removed from the JUnit view's
+	 *         history in the mean time and the tests need to be launched again
+	 */
+	public boolean restore(final TestType testType) {
+		final TestRunSession testRunSession = sessions.get(testType);
+		if (testRunSession == null) {
+			return false;
+		}
+		if (!JUnitCorePlugin.getModel().getTestRunSessions().contains(testRunSession)) {
+			sessions.remove(testType);
+			return false;
+		}
+		return Display.syncExec(new ResultRunnable<Boolean>() {
+			@Override
+			public Boolean run() {
+				try {
+					final IViewPart viewPart = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
+							.showView(TestRunnerViewPart.NAME);
+					activate((TestRunnerViewPart) viewPart, testRunSession);
+					shownTestType = testType;
+					return true;
+				} catch (PartInitException e) {
+					return false;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Makes the given session the active one of the given JUnit view through
+	 * the view's history, as when picking it in the history drop-down, so
+	 * that the deactivated session is swapped out. Must be called in the UI
+	 * thread.
+	 *
+	 * @param viewPart
+	 *            the JUnit view
+	 * @param testRunSession
+	 *            the session to activate, which must be in the JUnit model
+	 * @throws IllegalStateException
+	 *             if the history of the JUnit view cannot be accessed
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static void activate(final TestRunnerViewPart viewPart, final TestRunSession testRunSession) {
+		final ViewHistory viewHistory;
+		try {
+			// TestRunnerViewPart#setActiveTestRunSession is private, and only
+			// its history also swaps out the deactivated session
+			final Field viewHistoryField = TestRunnerViewPart.class.getDeclaredField("fViewHistory");
+			viewHistoryField.setAccessible(true);
+			viewHistory = (ViewHistory) viewHistoryField.get(viewPart);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException("The history of the JUnit view was not found", e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("The history of the JUnit view is not accessible", e);
+		}
+		viewHistory.setActiveEntry(testRunSession);
+	}
+
+}
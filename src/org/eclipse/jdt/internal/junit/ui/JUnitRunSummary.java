@@ -0,0 +1,156 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+
+/**
+ * A snapshot of the counters and status message of the JUnit view.
+ */
+@SuppressWarnings("restriction")
+final class JUnitRunSummary {
+
+	private static final Pattern RUNS_PATTERN = Pattern.compile("(\\d+)/(\\d+)");
+
+	private final int runs;
+
+	private final int total;
+
+	private final int errors;
+
+	private final int failures;
+
+	private final String status;
+
+	private JUnitRunSummary(final int runs, final int total, final int errors, final int failures,
+			final String status) {
+		this.runs = runs;
+		this.total = total;
+		this.errors = errors;
+		this.failures = failures;
+		this.status = status;
+	}
+
+	/**
+	 * @return the current counters of the (opened) JUnit view
+	 * @throws IllegalStateException
+	 *             if the counters of the JUnit view could not be found
+	 */
+	public static JUnitRunSummary capture() {
+		return Display.syncExec(new ResultRunnable<JUnitRunSummary>() {
+			@Override
+			public JUnitRunSummary run() {
+				final IViewPart viewPart = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
+						.findView(TestRunnerViewPart.NAME);
+				if (viewPart == null) {
+					throw new IllegalStateException("The JUnit view is not opened");
+				}
+				// the counter panel may be in a detached window
+				for (Shell shell : PlatformUI.getWorkbench().getDisplay().getShells()) {
+					final Label runsLabel = findLabel(shell, "Runs:");
+					if (runsLabel != null) {
+						final Composite counterPanel = runsLabel.getParent();
+						final String runs = getCounterValue(counterPanel, "Runs:");
+						final Matcher runsMatcher = RUNS_PATTERN.matcher(runs);
+						if (!runsMatcher.find()) {
+							throw new IllegalStateException("Unexpected number of runs: " + runs);
+						}
+						return new JUnitRunSummary(Integer.parseInt(runsMatcher.group(1)),
+								Integer.parseInt(runsMatcher.group(2)),
+								Integer.parseInt(getCounterValue(counterPanel, "Errors:")),
+								Integer.parseInt(getCounterValue(counterPanel, "Failures:")),
+								viewPart.getContentDescription());
+					}
+				}
+				throw new IllegalStateException("The counters of the JUnit view were not found");
+			}
+		});
+	}
+
+	/**
+	 * @return the label with the given (trimmed) text in the given composite
+	 *         or its descendants, or {@code null} if there is no such label
+	 */
+	private static Label findLabel(final Composite composite, final String labelText) {
+		for (Control child : composite.getChildren()) {
+			if (child instanceof Label && labelText.equals(((Label) child).getText().trim())) {
+				return (Label) child;
+			}
+			if (child instanceof Composite) {
+				final Label label = findLabel((Composite) child, labelText);
+				if (label != null) {
+					return label;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the trimmed text of the control following the label with the
+	 *         given text in the given counter panel
+	 * @throws IllegalStateException
+	 *             if there is no such label
+	 */
+	private static String getCounterValue(final Composite counterPanel, final String labelText) {
+		final Control[] children = counterPanel.getChildren();
+		for (int i = 0; i + 1 < children.length; i++) {
+			if (children[i] instanceof Label && labelText.equals(((Label) children[i]).getText().trim())) {
+				final Control value = children[i + 1];
+				if (value instanceof Text) {
+					return ((Text) value).getText().trim();
+				}
+				if (value instanceof Label) {
+					return ((Label) value).getText().trim();
+				}
+			}
+		}
+		throw new IllegalStateException("No value for " + labelText + " in the counter panel");
+	}
+
+	/**
+	 * @return the number of tests run so far
+	 */
+	public int getRuns() {
+		return runs;
+	}
+
+	/**
+	 * @return the total number of tests of the run
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	public int getErrors() {
+		return errors;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the status message of the JUnit view, including the elapsed
+	 *         time once the run is finished
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	@Override
+	public String toString() {
+		return "JUnitRunSummary [runs=" + runs + "/" + total + ", errors=" + errors + ", failures=" + failures
+				+ ", status=" + status + "]";
+	}
+
+}
@@ -0,0 +1,193 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.junit.JUnitCore;
+import org.eclipse.jdt.junit.TestRunListener;
+import org.eclipse.jdt.junit.model.ITestRunSession;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Tree;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.swt.api.TreeItem;
+import org.jboss.reddeer.swt.impl.tree.DefaultTreeItem;
+
+/**
+ * An index of the items of the JUnit view's {@link Tree}, organized as a trie
+ * of test element names (eg: {@code junit.lwe.AllTests} &gt;
+ * {@code junit.lwe.TP1} &gt; {@code testGetStr1}).
+ * <p>
+ * The trie is built lazily, along the paths that are looked up: only the
+ * direct items of the nodes on a path are indexed, without ever walking the
+ * rest of the tree, which may hold tens of thousands of test elements. The
+ * index never expands nor collapses a node, so it only finds the items that
+ * the tree already created (eg: along a path revealed by the JUnit view), and
+ * it leaves the expansion state of the tree untouched. Lookups are served from
+ * the trie until a test run starts or finishes, or until a node is expanded
+ * or collapsed in the tree.
+ * </p>
+ */
+final class JUnitTreeIndex {
+
+	/** the index of the last JUnit view tree that was looked up. */
+	private static JUnitTreeIndex current;
+
+	private final Tree tree;
+
+	private final TestRunListener testRunListener = new TestRunListener() {
+		@Override
+		public void sessionStarted(final ITestRunSession session) {
+			invalidate();
+		}
+
+		@Override
+		public void sessionFinished(final ITestRunSession session) {
+			invalidate();
+		}
+	};
+
+	private final Listener treeListener = new Listener() {
+		@Override
+		public void handleEvent(final Event event) {
+			if (event.type == SWT.Dispose) {
+				JUnitCore.removeTestRunListener(testRunListener);
+			}
+			invalidate();
+		}
+	};
+
+	/** the root of the trie, or {@code null} if it needs to be rebuilt. */
+	private volatile Node root;
+
+	private JUnitTreeIndex(final Tree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * @param tree
+	 *            the JUnit view's tree
+	 * @return the index of the given tree
+	 */
+	public static synchronized JUnitTreeIndex forTree(final Tree tree) {
+		if (current == null || current.tree != tree) {
+			current = new JUnitTreeIndex(tree);
+			current.hook();
+		}
+		return current;
+	}
+
+	private void hook() {
+		JUnitCore.addTestRunListener(testRunListener);
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				tree.addListener(SWT.Expand, treeListener);
+				tree.addListener(SWT.Collapse, treeListener);
+				tree.addListener(SWT.Dispose, treeListener);
+			}
+		});
+	}
+
+	/**
+	 * Discards the current snapshot of the tree.
+	 */
+	public void invalidate() {
+		root = null;
+	}
+
+	/**
+	 * @param elements
+	 *            the path to the item, where each element is the name of the
+	 *            test element (without the elapsed time)
+	 * @return the {@link TreeItem} at the given path, or {@code null} if no such
+	 *         item was created in the tree (eg: under a node that was never
+	 *         expanded)
+	 */
+	public TreeItem getTreeItem(final String... elements) {
+		final org.eclipse.swt.widgets.TreeItem treeItem = Display
+				.syncExec(new ResultRunnable<org.eclipse.swt.widgets.TreeItem>() {
+					@Override
+					public org.eclipse.swt.widgets.TreeItem run() {
+						if (tree.isDisposed()) {
+							return null;
+						}
+						Node rootNode = root;
+						if (rootNode == null) {
+							rootNode = new Node(null);
+							root = rootNode;
+						}
+						return find(rootNode, elements);
+					}
+				});
+		return treeItem == null ? null : new DefaultTreeItem(treeItem);
+	}
+
+	/**
+	 * Walks down the given path from the given node, indexing the direct
+	 * items of each node on the path when they are first needed.
+	 */
+	private org.eclipse.swt.widgets.TreeItem find(final Node rootNode, final String... elements) {
+		Node node = rootNode;
+		for (String element : elements) {
+			Node child = node.getChild(element);
+			if (child == null || child.item.isDisposed() || !getName(child.item).equals(element)) {
+				// items may have been reused or created since the node was
+				// indexed
+				index(node);
+				child = node.getChild(element);
+				if (child == null) {
+					return null;
+				}
+			}
+			node = child;
+		}
+		return node.item;
+	}
+
+	/**
+	 * (Re-)indexes the direct items of the given node that were already
+	 * created.
+	 */
+	private void index(final Node node) {
+		final org.eclipse.swt.widgets.TreeItem[] items = node.item == null ? tree.getItems() : node.item.getItems();
+		final Map<String, Node> children = new LinkedHashMap<String, Node>();
+		for (org.eclipse.swt.widgets.TreeItem item : items) {
+			final String name = getName(item);
+			// skip the placeholders of the collapsed nodes
+			if (name.length() > 0 && !children.containsKey(name)) {
+				children.put(name, new Node(item));
+			}
+		}
+		node.children = children;
+	}
+
+	/**
+	 * @return the name of the test element displayed by the given item, ie,
+	 *         its text without the elapsed time
+	 */
+	private static String getName(final org.eclipse.swt.widgets.TreeItem item) {
+		final String text = item.getText();
+		final int elapsedTimeIndex = text.indexOf(" (");
+		return elapsedTimeIndex == -1 ? text : text.substring(0, elapsedTimeIndex);
+	}
+
+	private static final class Node {
+
+		private final org.eclipse.swt.widgets.TreeItem item;
+
+		/** the indexed child nodes, or {@code null} if not indexed yet. */
+		private Map<String, Node> children;
+
+		Node(final org.eclipse.swt.widgets.TreeItem item) {
+			this.item = item;
+		}
+
+		Node getChild(final String name) {
+			return children == null ? null : children.get(name);
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import org.eclipse.jdt.junit.model.ITestCaseElement;
+import org.eclipse.jdt.junit.model.ITestSuiteElement;
+import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.PlatformUI;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.core.util.Display;
+
+/**
+ * Records the selection changes of the JUnit view, along with the time at
+ * which they occurred, so that the latency between an action (eg: a selection
+ * in an editor) and the resulting selection in the JUnit view can be measured.
+ */
+@SuppressWarnings("restriction")
+final class JUnitViewSelectionProbe {
+
+	/**
+	 * @return the name of the test method or of the test class of the given
+	 *         test element, or {@code null} if it is not a test element
+	 */
+	static String getTestElementName(final Object element) {
+		if (element instanceof ITestCaseElement) {
+			return ((ITestCaseElement) element).getTestMethodName();
+		}
+		if (element instanceof ITestSuiteElement) {
+			return ((ITestSuiteElement) element).getSuiteTypeName();
+		}
+		return null;
+	}
+
+	private final SelectionRecorder selections = new SelectionRecorder();
+
+	private final ISelectionChangedListener selectionListener = new ISelectionChangedListener() {
+		@Override
+		public void selectionChanged(final SelectionChangedEvent event) {
+			if (event.getSelection() instanceof IStructuredSelection) {
+				selections.record(getTestElementName(((IStructuredSelection) event.getSelection()).getFirstElement()));
+			}
+		}
+	};
+
+	private ISelectionProvider selectionProvider;
+
+	/**
+	 * Starts recording the selection changes of the (opened) JUnit view.
+	 */
+	public void attach() {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				final IViewPart viewPart = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
+						.findView(TestRunnerViewPart.NAME);
+				selectionProvider = viewPart.getSite().getSelectionProvider();
+				selectionProvider.addSelectionChangedListener(selectionListener);
+			}
+		});
+	}
+
+	/**
+	 * Stops recording the selection changes of the JUnit view.
+	 */
+	public void detach() {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (selectionProvider != null) {
+					selectionProvider.removeSelectionChangedListener(selectionListener);
+					selectionProvider = null;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Discards all recorded selection changes.
+	 */
+	public void clear() {
+		selections.clear();
+	}
+
+	/**
+	 * @return the number of selection changes of the JUnit view since the last
+	 *         {@link #clear()}
+	 */
+	public int getSelectionCount() {
+		return selections.getCount();
+	}
+
+	/**
+	 * @return the name of the last selected test element, or {@code null}
+	 */
+	public String getLastSelection() {
+		return selections.getLastName();
+	}
+
+	/**
+	 * Waits until the JUnit view selection did not change for the given quiet
+	 * period.
+	 *
+	 * @return {@code true} if the JUnit view went quiet in time
+	 * @see SelectionRecorder#awaitQuiet(long, long, TimePeriod)
+	 */
+	public boolean awaitQuiet(final long quietMillis, final long startNanoTime, final TimePeriod timePeriod) {
+		return selections.awaitQuiet(quietMillis, startNanoTime, timePeriod);
+	}
+
+	/**
+	 * Waits until the JUnit view selects the test element with the given name.
+	 *
+	 * @param testElementName
+	 *            the name of the test method or test class to wait for
+	 * @param startNanoTime
+	 *            the {@link System#nanoTime()} at which the measured action
+	 *            started
+	 * @param timePeriod
+	 *            the maximum time to wait
+	 * @return the number of nanoseconds between the given start time and the
+	 *         selection of the test element, or {@code -1} if it was not
+	 *         selected in time
+	 */
+	public long awaitSelection(final String testElementName, final long startNanoTime, final TimePeriod timePeriod) {
+		return selections.await(testElementName, startNanoTime, timePeriod);
+	}
+
+}
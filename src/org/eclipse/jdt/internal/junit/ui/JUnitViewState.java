@@ -0,0 +1,164 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+
+/**
+ * A snapshot of the expansion, selection and scroll position of a JUnit view.
+ */
+final class JUnitViewState {
+
+	private static final String SEPARATOR = " > ";
+
+	private final Set<String> expandedItems;
+
+	private final Set<String> selectedItems;
+
+	/** the path of the top item, or {@code null} if the tree is empty. */
+	private final String topItem;
+
+	private JUnitViewState(final Set<String> expandedItems, final Set<String> selectedItems, final String topItem) {
+		this.expandedItems = Collections.unmodifiableSet(expandedItems);
+		this.selectedItems = Collections.unmodifiableSet(selectedItems);
+		this.topItem = topItem;
+	}
+
+	/**
+	 * @param tree
+	 *            the JUnit view's tree
+	 * @return the current state of the given tree
+	 */
+	public static JUnitViewState capture(final Tree tree) {
+		return Display.syncExec(new ResultRunnable<JUnitViewState>() {
+			@Override
+			public JUnitViewState run() {
+				final Set<String> expandedItems = new TreeSet<String>();
+				collectExpandedItems(tree.getItems(), "", expandedItems);
+				final Set<String> selectedItems = new TreeSet<String>();
+				for (TreeItem item : tree.getSelection()) {
+					selectedItems.add(getPath(item));
+				}
+				final TreeItem topItem = tree.getItemCount() == 0 ? null : tree.getTopItem();
+				return new JUnitViewState(expandedItems, selectedItems, topItem == null ? null : getPath(topItem));
+			}
+		});
+	}
+
+	/**
+	 * Expands and collapses the items of the given tree, selects its items and
+	 * scrolls it as in the given state, without notifying the selection
+	 * listeners (ie, without revealing anything in the editors). The internal
+	 * state of the JUnit view part (eg: its history) is left as is.
+	 *
+	 * @param tree
+	 *            the JUnit view's tree
+	 * @param state
+	 *            the state to apply, usually captured from a freshly opened
+	 *            JUnit view showing the same session
+	 * @return {@code true} if the given tree is now in the given state,
+	 *         {@code false} if it could not be reset (eg: it shows another
+	 *         session)
+	 */
+	public static boolean reset(final Tree tree, final JUnitViewState state) {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				final List<TreeItem> selectedItems = new ArrayList<TreeItem>();
+				final TreeItem[] topItem = new TreeItem[1];
+				state.apply(tree, tree.getItems(), "", selectedItems, topItem);
+				tree.setSelection(selectedItems.toArray(new TreeItem[selectedItems.size()]));
+				if (topItem[0] != null) {
+					tree.setTopItem(topItem[0]);
+				}
+			}
+		});
+		return state.equals(capture(tree));
+	}
+
+	private void apply(final Tree tree, final TreeItem[] items, final String parentPath,
+			final List<TreeItem> selectedItemsFound, final TreeItem[] topItemFound) {
+		for (TreeItem item : items) {
+			if (item.getText().length() == 0) {
+				// the placeholder of a collapsed node
+				continue;
+			}
+			final String path = parentPath + item.getText();
+			if (selectedItems.contains(path)) {
+				selectedItemsFound.add(item);
+			}
+			if (path.equals(topItem)) {
+				topItemFound[0] = item;
+			}
+			if (expandedItems.contains(path)) {
+				setExpanded(tree, item, true);
+				apply(tree, item.getItems(), path + SEPARATOR, selectedItemsFound, topItemFound);
+			} else {
+				setExpanded(tree, item, false);
+			}
+		}
+	}
+
+	/**
+	 * Expands or collapses the given item the way the user would, so that the
+	 * tree's viewer creates the child items and its listeners (eg: the
+	 * {@link JUnitTreeIndex}) are notified.
+	 */
+	private static void setExpanded(final Tree tree, final TreeItem item, final boolean expanded) {
+		if (item.getExpanded() == expanded || item.getItemCount() == 0) {
+			return;
+		}
+		final Event event = new Event();
+		event.item = item;
+		tree.notifyListeners(expanded ? SWT.Expand : SWT.Collapse, event);
+		item.setExpanded(expanded);
+	}
+
+	private static void collectExpandedItems(final TreeItem[] items, final String parentPath,
+			final Set<String> expandedItems) {
+		for (TreeItem item : items) {
+			if (item.getExpanded()) {
+				final String path = parentPath + item.getText();
+				expandedItems.add(path);
+				collectExpandedItems(item.getItems(), path + SEPARATOR, expandedItems);
+			}
+		}
+	}
+
+	private static String getPath(final TreeItem item) {
+		final TreeItem parentItem = item.getParentItem();
+		return parentItem == null ? item.getText() : getPath(parentItem) + SEPARATOR + item.getText();
+	}
+
+	@Override
+	public int hashCode() {
+		return (expandedItems.hashCode() * 31 + selectedItems.hashCode()) * 31
+				+ (topItem == null ? 0 : topItem.hashCode());
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof JUnitViewState)) {
+			return false;
+		}
+		final JUnitViewState other = (JUnitViewState) obj;
+		return expandedItems.equals(other.expandedItems) && selectedItems.equals(other.selectedItems)
+				&& (topItem == null ? other.topItem == null : topItem.equals(other.topItem));
+	}
+
+	@Override
+	public String toString() {
+		return "JUnitViewState [expandedItems=" + expandedItems + ", selectedItems=" + selectedItems + ", topItem="
+				+ topItem + "]";
+	}
+
+}
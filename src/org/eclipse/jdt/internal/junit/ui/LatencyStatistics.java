@@ -0,0 +1,94 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency samples (in nanoseconds) and computes their distribution.
+ */
+final class LatencyStatistics {
+
+	private final List<Long> samples = new ArrayList<Long>();
+
+	/**
+	 * @param nanos
+	 *            the latency to record, in nanoseconds
+	 */
+	public synchronized void record(final long nanos) {
+		samples.add(nanos);
+	}
+
+	public synchronized int getCount() {
+		return samples.size();
+	}
+
+	/**
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return the latency at the given percentile (nearest-rank method), or
+	 *         {@code 0} if no sample was recorded
+	 */
+	public synchronized long getPercentile(final double percentile) {
+		if (samples.isEmpty()) {
+			return 0;
+		}
+		final List<Long> sortedSamples = new ArrayList<Long>(samples);
+		Collections.sort(sortedSamples);
+		final int rank = (int) Math.ceil(percentile / 100 * sortedSamples.size());
+		return sortedSamples.get(Math.max(0, rank - 1));
+	}
+
+	public synchronized long getMin() {
+		return samples.isEmpty() ? 0 : Collections.min(samples);
+	}
+
+	public synchronized long getMax() {
+		return samples.isEmpty() ? 0 : Collections.max(samples);
+	}
+
+	public synchronized long getMean() {
+		if (samples.isEmpty()) {
+			return 0;
+		}
+		long total = 0;
+		for (long sample : samples) {
+			total += sample;
+		}
+		return total / samples.size();
+	}
+
+	/**
+	 * @return the number of samples per bucket, keyed by the (inclusive) upper
+	 *         bound of the bucket in milliseconds, bounds being powers of 2
+	 */
+	public synchronized SortedMap<Long, Integer> getHistogram() {
+		final SortedMap<Long, Integer> histogram = new TreeMap<Long, Integer>();
+		for (long sample : samples) {
+			final long millis = TimeUnit.NANOSECONDS.toMillis(sample + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+			final long bound = millis <= 1 ? 1 : Long.highestOneBit(millis - 1) << 1;
+			final Integer count = histogram.get(bound);
+			histogram.put(bound, count == null ? 1 : count + 1);
+		}
+		return histogram;
+	}
+
+	/**
+	 * @return the distribution of the samples as a JSON object, with all
+	 *         latencies in nanoseconds
+	 */
+	public synchronized String toJson() {
+		return "{\"count\": " + getCount() + ", \"minNanos\": " + getMin() + ", \"meanNanos\": " + getMean()
+				+ ", \"p50Nanos\": " + getPercentile(50) + ", \"p95Nanos\": " + getPercentile(95) + ", \"p99Nanos\": "
+				+ getPercentile(99) + ", \"maxNanos\": " + getMax() + "}";
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyStatistics " + toJson();
+	}
+
+}
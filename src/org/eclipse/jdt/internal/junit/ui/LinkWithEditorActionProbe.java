@@ -0,0 +1,141 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jface.action.ActionContributionItem;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.jboss.reddeer.common.wait.TimePeriod;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.swt.api.ToolItem;
+
+/**
+ * Counts the updates of the JUnit view's "Link with Editor" action, ie, the
+ * property changes that make its tool item refresh, and more specifically the
+ * image changes that reflect a recomputation of the sync state.
+ */
+final class LinkWithEditorActionProbe {
+
+	private final AtomicInteger imageUpdates = new AtomicInteger();
+
+	private final AtomicInteger toolItemUpdates = new AtomicInteger();
+
+	/** guards {@link #lastUpdateNanoTime}, notified on each update. */
+	private final Object lastUpdateLock = new Object();
+
+	private long lastUpdateNanoTime = System.nanoTime();
+
+	private final AtomicLong lastImageUpdateNanoTime = new AtomicLong(System.nanoTime());
+
+	private final IPropertyChangeListener propertyChangeListener = new IPropertyChangeListener() {
+		@Override
+		public void propertyChange(final PropertyChangeEvent event) {
+			final long now = System.nanoTime();
+			toolItemUpdates.incrementAndGet();
+			if (IAction.IMAGE.equals(event.getProperty())) {
+				// the time is set before the count, so that a caller seeing
+				// the new count also sees the time of this update
+				lastImageUpdateNanoTime.set(now);
+				imageUpdates.incrementAndGet();
+			}
+			synchronized (lastUpdateLock) {
+				lastUpdateNanoTime = now;
+				lastUpdateLock.notifyAll();
+			}
+		}
+	};
+
+	private IAction action;
+
+	/**
+	 * Starts counting the updates of the action contributed as the given tool
+	 * item.
+	 *
+	 * @param toolItem
+	 *            the "Link with Editor" tool item of the JUnit view
+	 * @return {@code false} if the tool item is not contributed by an
+	 *         {@link IAction}, in which case nothing can be counted
+	 */
+	public boolean attach(final ToolItem toolItem) {
+		final org.eclipse.swt.widgets.ToolItem swtToolItem = toolItem.getSWTWidget();
+		return Display.syncExec(new ResultRunnable<Boolean>() {
+			@Override
+			public Boolean run() {
+				if (!(swtToolItem.getData() instanceof ActionContributionItem)) {
+					return false;
+				}
+				action = ((ActionContributionItem) swtToolItem.getData()).getAction();
+				action.addPropertyChangeListener(propertyChangeListener);
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Stops counting the updates.
+	 */
+	public void detach() {
+		Display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (action != null) {
+					action.removePropertyChangeListener(propertyChangeListener);
+					action = null;
+				}
+			}
+		});
+	}
+
+	public int getImageUpdates() {
+		return imageUpdates.get();
+	}
+
+	public int getToolItemUpdates() {
+		return toolItemUpdates.get();
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} at which the image of the action
+	 *         last changed, as notified to the action's listeners, ie, before
+	 *         the tool item shows it
+	 */
+	public long getLastImageUpdateNanoTime() {
+		return lastImageUpdateNanoTime.get();
+	}
+
+	/**
+	 * Waits until the action was not updated for the given quiet period (to
+	 * account for updates triggered by delayed post-selection events), or
+	 * until the given time period is elapsed.
+	 *
+	 * @param quietMillis
+	 *            the number of milliseconds without update
+	 * @param timePeriod
+	 *            the maximum time to wait
+	 * @return {@code true} if the quiet period was reached in time
+	 */
+	public boolean awaitQuiet(final long quietMillis, final TimePeriod timePeriod) {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timePeriod.getSeconds());
+		final long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+		synchronized (lastUpdateLock) {
+			try {
+				long now;
+				while ((now = System.nanoTime()) < deadline) {
+					final long remainingQuietNanos = lastUpdateNanoTime + quietNanos - now;
+					if (remainingQuietNanos <= 0) {
+						return true;
+					}
+					TimeUnit.NANOSECONDS.timedWait(lastUpdateLock, Math.min(remainingQuietNanos, deadline - now));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+	}
+
+}
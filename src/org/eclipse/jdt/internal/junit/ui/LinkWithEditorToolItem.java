@@ -0,0 +1,104 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.ToolItem;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.swt.impl.toolbar.DefaultToolItem;
+
+/**
+ * The "Link with Editor" tool item of the (opened) JUnit view, looked up once
+ * for the life of the view, and toggled only when its state differs from the
+ * requested one, so that setting up each test method neither searches the
+ * widget again nor writes the link state again.
+ */
+final class LinkWithEditorToolItem {
+
+	/** the tool item of the current JUnit view, until it is disposed. */
+	private static ToolItem toolItem;
+
+	private LinkWithEditorToolItem() {
+	}
+
+	/**
+	 * Selects or unselects the tool item, as the user would by clicking it.
+	 *
+	 * @param selected
+	 *            whether "Link with Editor" should be enabled
+	 * @return {@code true} if the tool item was toggled, {@code false} if it
+	 *         was already in the requested state
+	 */
+	public static synchronized boolean setSelected(final boolean selected) {
+		return syncExec(new ToolItemOperation<Boolean>() {
+			@Override
+			Boolean run(final ToolItem swtToolItem) {
+				if (swtToolItem.getSelection() == selected) {
+					return false;
+				}
+				swtToolItem.setSelection(selected);
+				final Event event = new Event();
+				event.widget = swtToolItem;
+				swtToolItem.notifyListeners(SWT.Selection, event);
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * @return the fingerprint of the tool item's image (synced or broken
+	 *         sync), or {@code null} if it has no image
+	 */
+	public static synchronized IconFingerprint getIcon() {
+		return syncExec(new ToolItemOperation<IconFingerprint>() {
+			@Override
+			IconFingerprint run(final ToolItem swtToolItem) {
+				final Image image = swtToolItem.getImage();
+				return image == null ? null : IconFingerprint.of(image.getImageData());
+			}
+		});
+	}
+
+	/**
+	 * Runs the given operation on the tool item in a single UI-thread round
+	 * trip, which also checks that the tool item is still there. The tool item
+	 * is looked up again (and the operation run a second time) only when the
+	 * JUnit view was (re)created.
+	 */
+	private static <T> T syncExec(final ToolItemOperation<T> operation) {
+		final T result = Display.syncExec(operation);
+		if (!operation.stale) {
+			return result;
+		}
+		// the lookup waits for the tool item, so it must not run in the UI
+		// thread
+		toolItem = new DefaultToolItem(AbstractJUnitLinkWithEditorTest.LINK_WITH_EDITOR).getSWTWidget();
+		final T retriedResult = Display.syncExec(operation);
+		if (operation.stale) {
+			throw new IllegalStateException("The " + AbstractJUnitLinkWithEditorTest.LINK_WITH_EDITOR
+					+ " tool item was disposed right after it was looked up");
+		}
+		return retriedResult;
+	}
+
+	/**
+	 * An operation on the current tool item, which is skipped if that tool
+	 * item is missing or disposed.
+	 */
+	private abstract static class ToolItemOperation<T> implements ResultRunnable<T> {
+
+		/** whether the last run found no usable tool item. */
+		private boolean stale;
+
+		@Override
+		public final T run() {
+			stale = toolItem == null || toolItem.isDisposed();
+			return stale ? null : run(toolItem);
+		}
+
+		abstract T run(ToolItem swtToolItem);
+
+	}
+
+}
@@ -0,0 +1,150 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The number of calls and the total time (in nanoseconds) of the phases of
+ * each test method of a test class, written as
+ * {@code <test class>-phases.json} and {@code <test class>-phases.csv} in the
+ * reports directory (see {@link BenchmarkReport#getReportsDir()}).
+ */
+final class PhaseTimings {
+
+	private static final Map<String, PhaseTimings> INSTANCES = new HashMap<String, PhaseTimings>();
+
+	private final String testClassName;
+
+	/** the phases of each test method, in execution order. */
+	private final Map<String, Map<String, long[]>> testMethods = new LinkedHashMap<String, Map<String, long[]>>();
+
+	private Map<String, long[]> currentPhases;
+
+	private PhaseTimings(final String testClassName) {
+		this.testClassName = testClassName;
+	}
+
+	/**
+	 * @return the timings of the given test class, shared by all its instances
+	 */
+	public static synchronized PhaseTimings forTestClass(final Class<?> testClass) {
+		PhaseTimings phaseTimings = INSTANCES.get(testClass.getName());
+		if (phaseTimings == null) {
+			phaseTimings = new PhaseTimings(testClass.getSimpleName());
+			INSTANCES.put(testClass.getName(), phaseTimings);
+		}
+		return phaseTimings;
+	}
+
+	/**
+	 * Records the following phases for the given test method.
+	 */
+	public synchronized void startTestMethod(final String testMethodName) {
+		currentPhases = new LinkedHashMap<String, long[]>();
+		testMethods.put(testMethodName, currentPhases);
+	}
+
+	/**
+	 * Records a call of the given phase, started at the given time. Phases
+	 * recorded outside of a test method are ignored.
+	 *
+	 * @param phase
+	 *            the name of the phase
+	 * @param startNanoTime
+	 *            the {@link System#nanoTime()} at which the phase started
+	 * @return the {@link System#nanoTime()} at which the phase ended, ie, the
+	 *         start time of the next phase
+	 */
+	public synchronized long record(final String phase, final long startNanoTime) {
+		final long endNanoTime = System.nanoTime();
+		if (currentPhases != null) {
+			long[] timing = currentPhases.get(phase);
+			if (timing == null) {
+				timing = new long[2];
+				currentPhases.put(phase, timing);
+			}
+			timing[0]++;
+			timing[1] += endNanoTime - startNanoTime;
+		}
+		return endNanoTime;
+	}
+
+	/**
+	 * Writes the timings of all the test methods run so far.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void write() throws IOException {
+		final File reportsDir = BenchmarkReport.getReportsDir();
+		if (!reportsDir.isDirectory() && !reportsDir.mkdirs()) {
+			throw new IOException("Failed to create " + reportsDir.getAbsolutePath());
+		}
+		write(new File(reportsDir, testClassName + "-phases.json"), toJson());
+		write(new File(reportsDir, testClassName + "-phases.csv"), toCsv());
+	}
+
+	private static void write(final File file, final String content) throws IOException {
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			writer.write(content);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @return the timings as a JSON object, with a
+	 *         <code>{"count": ..., "totalNanos": ...}</code> object per phase
+	 *         per test method
+	 */
+	public synchronized String toJson() {
+		final StringBuilder json = new StringBuilder();
+		json.append("{\n  \"testClass\": \"").append(testClassName).append("\",\n");
+		json.append("  \"testMethods\": {");
+		for (Iterator<Entry<String, Map<String, long[]>>> testMethodIterator = testMethods.entrySet()
+				.iterator(); testMethodIterator.hasNext();) {
+			final Entry<String, Map<String, long[]>> testMethod = testMethodIterator.next();
+			json.append("\n    \"").append(testMethod.getKey()).append("\": {");
+			for (Iterator<Entry<String, long[]>> phaseIterator = testMethod.getValue().entrySet()
+					.iterator(); phaseIterator.hasNext();) {
+				final Entry<String, long[]> phase = phaseIterator.next();
+				json.append("\n      \"").append(phase.getKey()).append("\": {\"count\": ")
+						.append(phase.getValue()[0]).append(", \"totalNanos\": ").append(phase.getValue()[1])
+						.append('}');
+				if (phaseIterator.hasNext()) {
+					json.append(',');
+				}
+			}
+			json.append("\n    }");
+			if (testMethodIterator.hasNext()) {
+				json.append(',');
+			}
+		}
+		json.append("\n  }\n}\n");
+		return json.toString();
+	}
+
+	/**
+	 * @return the timings as CSV, with a row per phase per test method
+	 */
+	public synchronized String toCsv() {
+		final StringBuilder csv = new StringBuilder("testClass,testMethod,phase,count,totalNanos\n");
+		for (Entry<String, Map<String, long[]>> testMethod : testMethods.entrySet()) {
+			for (Entry<String, long[]> phase : testMethod.getValue().entrySet()) {
+				csv.append(testClassName).append(',').append(testMethod.getKey()).append(',')
+						.append(phase.getKey()).append(',').append(phase.getValue()[0]).append(',')
+						.append(phase.getValue()[1]).append('\n');
+			}
+		}
+		return csv.toString();
+	}
+
+}
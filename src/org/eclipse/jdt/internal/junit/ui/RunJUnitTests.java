@@ -17,7 +17,9 @@ import java.lang.annotation.Target;
 public @interface RunJUnitTests {
 
 	enum TestType {
-		ALL, SUITE, LIB;
+		ALL, SUITE, LIB,
+		/** no shared run: the test method launches the tests it needs. */
+		NONE;
 	}
 
 	public TestType type();
@@ -0,0 +1,144 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+import org.junit.runners.model.FrameworkMethod;
+
+/**
+ * The state in which a test method runs: the JUnit run shown in the JUnit view
+ * and the state of its "Link with Editor" tool item. Test methods sharing the
+ * same scenario can share the (expensive) setup of that state. Scenarios are
+ * ordered by {@link TestType} (test methods without a type last), then with
+ * the link enabled first.
+ */
+final class Scenario implements Comparable<Scenario> {
+
+	/**
+	 * A cell of a {@link ScenarioMatrix}: the test method to run in one of the
+	 * scenarios of its matrix.
+	 */
+	static final class ScenarioMethod extends FrameworkMethod {
+
+		private final Scenario scenario;
+
+		ScenarioMethod(final FrameworkMethod method, final Scenario scenario) {
+			super(method.getMethod());
+			this.scenario = scenario;
+		}
+
+		public Scenario getScenario() {
+			return scenario;
+		}
+
+		@Override
+		public String getName() {
+			return super.getName() + '[' + scenario + ']';
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof ScenarioMethod && super.equals(obj)
+					&& scenario.equals(((ScenarioMethod) obj).scenario);
+		}
+
+		@Override
+		public int hashCode() {
+			return super.hashCode() * 31 + scenario.hashCode();
+		}
+	}
+
+	private final TestType testType;
+
+	private final boolean linkWithEditorEnabled;
+
+	Scenario(final TestType testType, final boolean linkWithEditorEnabled) {
+		this.testType = testType;
+		this.linkWithEditorEnabled = linkWithEditorEnabled;
+	}
+
+	/**
+	 * @param method
+	 *            a test method, or a cell of a {@link ScenarioMatrix}
+	 * @return the scenario of the given cell, or the one given by the
+	 *         {@link RunJUnitTests} and {@link LinkWithEditor} annotations of
+	 *         the given test method
+	 */
+	static Scenario of(final FrameworkMethod method) {
+		if (method instanceof ScenarioMethod) {
+			return ((ScenarioMethod) method).getScenario();
+		}
+		final RunJUnitTests runJUnitTests = method.getAnnotation(RunJUnitTests.class);
+		final LinkWithEditor linkWithEditor = method.getAnnotation(LinkWithEditor.class);
+		return new Scenario(runJUnitTests == null ? null : runJUnitTests.type(), linkWithEditor == null
+				|| linkWithEditor.enabled());
+	}
+
+	/**
+	 * @param method
+	 *            a test method annotated with {@link ScenarioMatrix}
+	 * @return a cell for each scenario of the matrix of the given method, the
+	 *         {@link LinkWithEditor} states varying fastest
+	 */
+	static List<FrameworkMethod> expand(final FrameworkMethod method) {
+		final ScenarioMatrix matrix = method.getAnnotation(ScenarioMatrix.class);
+		final List<FrameworkMethod> cells = new ArrayList<FrameworkMethod>();
+		for (TestType testType : matrix.runJUnitTests()) {
+			for (boolean linkWithEditorEnabled : matrix.linkWithEditor()) {
+				cells.add(new ScenarioMethod(method, new Scenario(testType, linkWithEditorEnabled)));
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * @return the type of tests to run, or {@code null} if the test method
+	 *         does not say
+	 */
+	public TestType getTestType() {
+		return testType;
+	}
+
+	public boolean isLinkWithEditorEnabled() {
+		return linkWithEditorEnabled;
+	}
+
+	@Override
+	public int compareTo(final Scenario other) {
+		final int thisType = testType == null ? Integer.MAX_VALUE : testType.ordinal();
+		final int otherType = other.testType == null ? Integer.MAX_VALUE : other.testType.ordinal();
+		if (thisType != otherType) {
+			return thisType < otherType ? -1 : 1;
+		}
+		if (linkWithEditorEnabled != other.linkWithEditorEnabled) {
+			return linkWithEditorEnabled ? -1 : 1;
+		}
+		return 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return (testType == null ? 0 : testType.hashCode()) * 31 + (linkWithEditorEnabled ? 1 : 0);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof Scenario)) {
+			return false;
+		}
+		final Scenario other = (Scenario) obj;
+		return testType == other.testType && linkWithEditorEnabled == other.linkWithEditorEnabled;
+	}
+
+	/**
+	 * @return eg: {@code ALL/true}, or {@code ?/true} if the test method does
+	 *         not give its type of tests, also used as the partition key of
+	 *         the test methods (see {@link JUnitLinkWithEditorShardRunner})
+	 */
+	@Override
+	public String toString() {
+		return (testType == null ? "?" : testType.name()) + '/' + linkWithEditorEnabled;
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.eclipse.jdt.internal.junit.ui.RunJUnitTests.TestType;
+
+/**
+ * Runs a test method once per cell of the matrix of the given
+ * {@link RunJUnitTests} types and {@link LinkWithEditor} states, instead of
+ * duplicating its body for each of them. The test method reads the
+ * {@link Scenario} of the current cell to compute its expected outcomes.
+ *
+ * @see JUnitLinkWithEditorShardRunner
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ScenarioMatrix {
+
+	public TestType[] runJUnitTests() default { TestType.ALL };
+
+	public boolean[] linkWithEditor() default { true, false };
+
+}
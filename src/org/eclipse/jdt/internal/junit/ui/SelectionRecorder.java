@@ -0,0 +1,148 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.reddeer.common.wait.TimePeriod;
+
+/**
+ * Records named selection changes along with the time at which they occurred,
+ * so that the latency between an action and the resulting selection can be
+ * measured from another thread.
+ */
+final class SelectionRecorder {
+
+	private static final class SelectionRecord {
+
+		final long nanoTime;
+
+		final String name;
+
+		SelectionRecord(final long nanoTime, final String name) {
+			this.nanoTime = nanoTime;
+			this.name = name;
+		}
+	}
+
+	private final LinkedBlockingQueue<SelectionRecord> selections = new LinkedBlockingQueue<SelectionRecord>();
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	/** guards {@link #lastSelection}, notified on each selection change. */
+	private final Object lastSelectionLock = new Object();
+
+	private SelectionRecord lastSelection;
+
+	/**
+	 * Records a selection change that occurred now.
+	 *
+	 * @param name
+	 *            the name of the selected element (may be {@code null})
+	 */
+	public void record(final String name) {
+		final SelectionRecord selection = new SelectionRecord(System.nanoTime(), name);
+		synchronized (lastSelectionLock) {
+			lastSelection = selection;
+			lastSelectionLock.notifyAll();
+		}
+		count.incrementAndGet();
+		selections.add(selection);
+	}
+
+	/**
+	 * Discards all recorded selection changes.
+	 */
+	public void clear() {
+		selections.clear();
+		count.set(0);
+		synchronized (lastSelectionLock) {
+			lastSelection = null;
+		}
+	}
+
+	/**
+	 * @return the number of selection changes recorded since the last
+	 *         {@link #clear()}, including the ones already awaited
+	 */
+	public int getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the name of the last selected element, or {@code null} if none
+	 *         was recorded
+	 */
+	public String getLastName() {
+		synchronized (lastSelectionLock) {
+			return lastSelection == null ? null : lastSelection.name;
+		}
+	}
+
+	/**
+	 * Waits until no selection change was recorded for the given quiet period,
+	 * or until the given time period is elapsed. The wait is woken up by each
+	 * recorded selection change, which restarts the quiet period.
+	 *
+	 * @param quietMillis
+	 *            the number of milliseconds without selection change
+	 * @param startNanoTime
+	 *            the {@link System#nanoTime()} from which the quiet period
+	 *            starts if no selection change was recorded
+	 * @param timePeriod
+	 *            the maximum time to wait
+	 * @return {@code true} if the quiet period was reached in time
+	 */
+	public boolean awaitQuiet(final long quietMillis, final long startNanoTime, final TimePeriod timePeriod) {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timePeriod.getSeconds());
+		final long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+		synchronized (lastSelectionLock) {
+			try {
+				long now;
+				while ((now = System.nanoTime()) < deadline) {
+					final long lastNanoTime = lastSelection == null ? startNanoTime : Math.max(startNanoTime,
+							lastSelection.nanoTime);
+					final long remainingQuietNanos = lastNanoTime + quietNanos - now;
+					if (remainingQuietNanos <= 0) {
+						return true;
+					}
+					TimeUnit.NANOSECONDS.timedWait(lastSelectionLock, Math.min(remainingQuietNanos, deadline - now));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Waits until an element with the given name is selected.
+	 *
+	 * @param name
+	 *            the name of the element to wait for
+	 * @param startNanoTime
+	 *            the {@link System#nanoTime()} at which the measured action
+	 *            started
+	 * @param timePeriod
+	 *            the maximum time to wait
+	 * @return the number of nanoseconds between the given start time and the
+	 *         selection of the element, or {@code -1} if it was not selected
+	 *         in time
+	 */
+	public long await(final String name, final long startNanoTime, final TimePeriod timePeriod) {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timePeriod.getSeconds());
+		try {
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0) {
+				final SelectionRecord selection = selections.poll(remaining, TimeUnit.NANOSECONDS);
+				if (selection != null && name.equals(selection.name)) {
+					return selection.nanoTime - startNanoTime;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return -1;
+	}
+
+}
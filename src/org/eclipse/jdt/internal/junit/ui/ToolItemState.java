@@ -0,0 +1,63 @@
+package org.eclipse.jdt.internal.junit.ui;
+
+import org.eclipse.swt.graphics.Image;
+import org.jboss.reddeer.core.util.Display;
+import org.jboss.reddeer.core.util.ResultRunnable;
+import org.jboss.reddeer.swt.api.ToolItem;
+
+/**
+ * A snapshot of the enablement, selection and icon of a tool item.
+ */
+final class ToolItemState {
+
+	private final boolean enabled;
+
+	private final boolean selected;
+
+	private final IconFingerprint icon;
+
+	private ToolItemState(final boolean enabled, final boolean selected, final IconFingerprint icon) {
+		this.enabled = enabled;
+		this.selected = selected;
+		this.icon = icon;
+	}
+
+	/**
+	 * @param toolItem
+	 *            the tool item to inspect
+	 * @return the current state of the given tool item
+	 */
+	public static ToolItemState capture(final ToolItem toolItem) {
+		final org.eclipse.swt.widgets.ToolItem swtToolItem = toolItem.getSWTWidget();
+		return Display.syncExec(new ResultRunnable<ToolItemState>() {
+			@Override
+			public ToolItemState run() {
+				final Image image = swtToolItem.getImage();
+				return new ToolItemState(swtToolItem.isEnabled(), swtToolItem.getSelection(),
+						image == null ? null : IconFingerprint.of(image.getImageData()));
+			}
+		});
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isSelected() {
+		return selected;
+	}
+
+	/**
+	 * @return the fingerprint of the tool item's image, or {@code null} if it
+	 *         has no image
+	 */
+	public IconFingerprint getIcon() {
+		return icon;
+	}
+
+	@Override
+	public String toString() {
+		return "ToolItemState [enabled=" + enabled + ", selected=" + selected + ", icon=" + icon + "]";
+	}
+
+}